@@ -0,0 +1,127 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.enums.UserRole;
+import com.assignment.ExchangeApplication.model.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stateless access tokens: {@code base64url(payload).base64url(HMAC-SHA256(payload))}, the payload being
+ * {@code clientId:role:expiresAt:username}. A token is verified with one HMAC and a constant time comparison, so a
+ * request carrying one needs neither the database nor BCrypt. Tokens are signed, not encrypted, and cannot be
+ * revoked before they expire, which is why their time to live is kept short.
+ * <p>
+ * Every node must share the secret, so startup fails without one. Only when {@code security.token.single-node} is
+ * set is a random key generated instead, and tokens then stop verifying on restart.
+ */
+@Component
+public class AccessTokenCodec {
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenCodec.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // Authorities are the same for every client of a role, so verified principals share them
+    private static final Map<UserRole, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole role : UserRole.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority(role.toString())));
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final Duration timeToLive;
+    private final ThreadLocal<Mac> macs;
+
+    public AccessTokenCodec(@Value("${security.token.secret}") String secret,
+                            @Value("${security.token.single-node}") boolean singleNode,
+                            @Value("${security.token.time-to-live-ms}") long timeToLiveMillis
+    ) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            if (!singleNode) {
+                throw new IllegalStateException("security.token.secret must be set to a Base64 key shared by all nodes, "
+                        + "or security.token.single-node=true for a single node signing with a random key");
+            }
+            log.warn("No security.token.secret configured, signing access tokens with a random key for this node only");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.timeToLive = Duration.ofMillis(timeToLiveMillis);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Client client) {
+        long expiresAt = Instant.now().plus(timeToLive).getEpochSecond();
+        String payload = client.getId() + ":" + client.getRole().name() + ":" + expiresAt + ":" + client.getUsername();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Returns the principal the token was issued to, or empty when the token is malformed, forged or expired.
+     */
+    public Optional<Client> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(payloadBytes))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":", 4);
+            if (parts.length < 4 || Long.parseLong(parts[2]) <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            UserRole role = UserRole.valueOf(parts[1]);
+            return Optional.of(new Client(UUID.fromString(parts[0]), null, null, null, parts[3], null,
+                    AUTHORITIES.get(role), role));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise access token signing", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on concurrent write requests, so overload is shed up front instead of queueing in Tomcat until
+ * every caller times out. The limit follows a latency gradient: each completed request compares the long-term
+ * average latency with its own. While latency stays within the tolerance of the average and the limit is in use,
+ * the limit grows by its square root (smoothed); once latency rises it shrinks in proportion, down to half per
+ * sample. A latency that persists gradually becomes the new average, so the limit recovers once the system has
+ * settled at it. A request arriving while the limit is fully in use is rejected at once.
+ * <p>
+ * Published as {@code concurrency.limit}, {@code concurrency.limit.in.flight} and
+ * {@code concurrency.limit.requests} tagged by outcome, from which the rejection rate follows.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+    // Samples averaged into the long-term latency
+    private static final int LONG_WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter accepted;
+    private final Counter rejected;
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${concurrency-limit.initial}") int initialLimit,
+                                      @Value("${concurrency-limit.min}") int minLimit,
+                                      @Value("${concurrency-limit.max}") int maxLimit,
+                                      @Value("${concurrency-limit.tolerance}") double tolerance,
+                                      @Value("${concurrency-limit.smoothing}") double smoothing
+    ) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.accepted = meterRegistry.counter("concurrency.limit.requests", "outcome", "accepted");
+        this.rejected = meterRegistry.counter("concurrency.limit.requests", "outcome", "rejected");
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent write requests")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Returns a permit to release once the request completes, or empty when the limit is fully in use.
+     */
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return Optional.of(new Permit(System.nanoTime(), current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Adjusts the limit to the latency of a request that ran with the given number of requests in flight.
+     */
+    public synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+        // After a sustained latency increase the average would hold the limit down long after load has eased
+        if (longRttNanos > rttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / Math.max(rttNanos, 1)));
+        double headroom = inFlightAtStart >= current / 2 ? Math.sqrt(current) : 0;
+        double target = current * gradient + headroom;
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+    }
+}
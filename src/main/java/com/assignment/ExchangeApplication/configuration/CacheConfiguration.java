@@ -0,0 +1,60 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfiguration {
+
+    @Value("${spring.cache.redis.time-to-live}")
+    private long redisTimeToLiveMillis;
+
+    @Value("${cache.local.maximum-size}")
+    private long localMaximumSize;
+
+    @Value("${cache.local.time-to-live-ms}")
+    private long localTimeToLiveMillis;
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(redisTemplate, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus,
+                                     MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMillis(redisTimeToLiveMillis))
+                .serializeKeysWith(SerializationPair.fromSerializer(RedisSerializer.string()))
+                .disableCachingNullValues();
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration("exchangeRatesCache",
+                        defaults.serializeValuesWith(SerializationPair.fromSerializer(new ExchangeRateTableRedisSerializer())))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TieredCacheManager(redisCacheManager, cacheInvalidationBus, meterRegistry, localMaximumSize, Duration.ofMillis(localTimeToLiveMillis));
+    }
+}
@@ -0,0 +1,81 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cluster cache coherence over Redis pub/sub. A node that changes shared state publishes an invalidation for a
+ * region (a cache, or a kind of entity) and key; every other node drops its in-process copy, so local caches can
+ * be kept aggressively without serving stale data for longer than a pub/sub round trip. Publishing is best effort:
+ * while Redis is unreachable the local time to live bounds staleness.
+ * <p>
+ * Messages are {@code nodeId\nregion\nkey}, an empty key invalidating the whole region. A node ignores its own
+ * messages, as it has already applied the change locally.
+ */
+public class CacheInvalidationBus implements MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String CHANNEL = "cache-invalidation";
+    public static final String CLIENTS_REGION = "clients";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static String cacheRegion(String cacheName) {
+        return "cache:" + cacheName;
+    }
+
+    /**
+     * Registers a handler called with the invalidated key, or {@code null} when the whole region is invalidated.
+     */
+    public void subscribe(String region, Consumer<String> handler) {
+        handlers.computeIfAbsent(region, name -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void publish(String region, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + '\n' + region + '\n' + (key == null ? "" : key));
+            meterRegistry.counter("cache.invalidation.published", "region", region).increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation of {} in {}: {}", key, region, e.getMessage());
+            meterRegistry.counter("cache.invalidation.publish.failures", "region", region).increment();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        String region = parts[1];
+        String key = parts[2].isEmpty() ? null : parts[2];
+        meterRegistry.counter("cache.invalidation.received", "region", region).increment();
+        for (Consumer<String> handler : handlers.getOrDefault(region, List.of())) {
+            handler.accept(key);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,95 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.OVERLOADED_ERROR;
+
+/**
+ * Puts the transaction write endpoints behind the {@link AdaptiveConcurrencyLimiter}: a request over the limit is
+ * answered 503 with {@code Retry-After} straight away, before any work is done for it. A request handed to a
+ * {@link RequestExecutors} pool holds its permit until it completes.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter concurrencyLimiter, ObjectMapper objectMapper,
+                                  long retryAfterSeconds) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !request.getRequestURI().startsWith("/api/transaction/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = concurrencyLimiter.tryAcquire();
+        if (permit.isEmpty()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED_ERROR));
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // The handler runs on a request executor, so the request only completes once that work is done
+                request.getAsyncContext().addListener(new ReleasingListener(permit.get()));
+            } else {
+                permit.get().release();
+            }
+        }
+    }
+
+    private static class ReleasingListener implements AsyncListener {
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+
+        private ReleasingListener(AdaptiveConcurrencyLimiter.Permit permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces the {@link RequestExecutors} connection shares. Each request executor thread holds at most one
+ * connection, so its pool can never use more than its share; every other thread (Tomcat threads serving the
+ * account, client and auth endpoints, schedulers) draws from the connections left over, and waits for one of
+ * those instead of taking a connection the request executors are entitled to.
+ */
+public class ConnectionShareDataSource extends DelegatingDataSource {
+
+    private final Semaphore sharedConnections;
+    private final long timeoutMillis;
+
+    public ConnectionShareDataSource(DataSource targetDataSource, int sharedConnections, long timeoutMillis) {
+        super(targetDataSource);
+        this.sharedConnections = new Semaphore(sharedConnections, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (RequestExecutors.currentPool().isPresent()) {
+            return super.getConnection();
+        }
+        acquireShared();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            sharedConnections.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (RequestExecutors.currentPool().isPresent()) {
+            return super.getConnection(username, password);
+        }
+        acquireShared();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            sharedConnections.release();
+            throw e;
+        }
+    }
+
+    public int getAvailableSharedConnections() {
+        return sharedConnections.availablePermits();
+    }
+
+    private void acquireShared() throws SQLException {
+        try {
+            if (!sharedConnections.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No shared connection available within " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a shared connection", e);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield invoke(connection, method, args);
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                sharedConnections.release();
+                            }
+                        }
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Connection connection, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
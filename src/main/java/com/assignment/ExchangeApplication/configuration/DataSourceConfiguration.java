@@ -0,0 +1,31 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfiguration {
+
+    // Static, so the data source is wrapped however early it is created
+    @Bean
+    public static BeanPostProcessor connectionShareDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionShareDataSource) {
+                    return bean;
+                }
+                int sharedConnections = RequestExecutors.sharedConnections(
+                        environment.getRequiredProperty("spring.datasource.hikari.maximum-pool-size", Integer.class),
+                        environment.getRequiredProperty("request.executor.reads.threads", Integer.class),
+                        environment.getRequiredProperty("request.executor.writes.threads", Integer.class));
+                return new ConnectionShareDataSource(dataSource, sharedConnections,
+                        environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30_000L));
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.service.HttpExchangeRateProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class ExchangeRateProviderConfiguration {
+
+    @Value("${exchange.api.timeout-ms}")
+    private long timeoutMillis;
+
+    // Shared by all providers, keeps connections alive and pools them per host
+    @Bean
+    public HttpClient exchangeRateHttpClient(@Value("${exchange.api.connect-timeout-ms}") long connectTimeoutMillis) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public HttpExchangeRateProvider primaryExchangeRateProvider(RestTemplateBuilder restTemplateBuilder, HttpClient exchangeRateHttpClient,
+                                                                @Value("${exchange.api.base-url}") String baseUrl) {
+        return new HttpExchangeRateProvider("primary", restTemplateBuilder, exchangeRateHttpClient, baseUrl,
+                Duration.ofMillis(timeoutMillis), 0);
+    }
+
+    @Bean
+    @ConditionalOnProperty("exchange.api.secondary-base-url")
+    public HttpExchangeRateProvider secondaryExchangeRateProvider(RestTemplateBuilder restTemplateBuilder, HttpClient exchangeRateHttpClient,
+                                                                  @Value("${exchange.api.secondary-base-url}") String baseUrl) {
+        return new HttpExchangeRateProvider("secondary", restTemplateBuilder, exchangeRateHttpClient, baseUrl,
+                Duration.ofMillis(timeoutMillis), 1);
+    }
+}
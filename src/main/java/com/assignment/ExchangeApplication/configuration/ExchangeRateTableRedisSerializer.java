@@ -0,0 +1,142 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact binary format for cached and persisted rate tables: a format version byte, the base currency, both
+ * update timestamps, the snapshot id (zero when the table has not been persisted) and then one entry per known
+ * currency, each a three letter ISO code followed by the rate as a double. Codes rather than ordinals are stored
+ * so that entries survive reordering of {@link CurrencyCode}. Version 1 payloads, which have no snapshot id, are
+ * still read; payloads written in an unknown format are reported as a cache miss instead of failing the lookup.
+ */
+public class ExchangeRateTableRedisSerializer implements RedisSerializer<ExchangeRateTable> {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateTableRedisSerializer.class);
+
+    static final byte FORMAT_VERSION = 2;
+    private static final byte FORMAT_VERSION_WITHOUT_SNAPSHOT = 1;
+    private static final int CODE_LENGTH = 3;
+    private static final int HEADER_SIZE = 1 + CODE_LENGTH + Long.BYTES * 4 + Short.BYTES;
+    private static final int ENTRY_SIZE = CODE_LENGTH + Double.BYTES;
+    private static final int LETTERS = 26;
+    private static final byte[][] CODE_BYTES = codeBytes();
+    private static final CurrencyCode[] CODES_BY_LETTERS = codesByLetters();
+
+    @Override
+    public byte[] serialize(ExchangeRateTable table) throws SerializationException {
+        if (table == null) {
+            return null;
+        }
+        CurrencyCode[] currencyCodes = CurrencyCode.values();
+        int count = 0;
+        for (CurrencyCode currencyCode : currencyCodes) {
+            if (table.supports(currencyCode)) {
+                count++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * ENTRY_SIZE);
+        buffer.put(FORMAT_VERSION);
+        putCode(buffer, table.getBaseCurrency());
+        buffer.putLong(table.getLastUpdateUnix());
+        buffer.putLong(table.getNextUpdateUnix());
+        UUID snapshotId = table.getSnapshotId();
+        buffer.putLong(snapshotId == null ? 0 : snapshotId.getMostSignificantBits());
+        buffer.putLong(snapshotId == null ? 0 : snapshotId.getLeastSignificantBits());
+        buffer.putShort((short) count);
+        for (CurrencyCode currencyCode : currencyCodes) {
+            if (table.supports(currencyCode)) {
+                putCode(buffer, currencyCode);
+                buffer.putDouble(table.ratePerBase(currencyCode));
+            }
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public ExchangeRateTable deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != FORMAT_VERSION && bytes[0] != FORMAT_VERSION_WITHOUT_SNAPSHOT) {
+            log.info("Ignoring cached exchange rates stored in unsupported format {}", bytes[0]);
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            CurrencyCode baseCurrency = getCode(buffer);
+            long lastUpdateUnix = buffer.getLong();
+            long nextUpdateUnix = buffer.getLong();
+            UUID snapshotId = null;
+            if (bytes[0] == FORMAT_VERSION) {
+                long mostSignificantBits = buffer.getLong();
+                long leastSignificantBits = buffer.getLong();
+                if (mostSignificantBits != 0 || leastSignificantBits != 0) {
+                    snapshotId = new UUID(mostSignificantBits, leastSignificantBits);
+                }
+            }
+            int count = buffer.getShort();
+            double[] rates = ExchangeRateTable.emptyRates();
+            for (int i = 0; i < count; i++) {
+                CurrencyCode currencyCode = getCode(buffer);
+                double rate = buffer.getDouble();
+                if (currencyCode != null) {
+                    rates[currencyCode.ordinal()] = rate;
+                }
+            }
+            if (baseCurrency == null) {
+                return null;
+            }
+            return ExchangeRateTable.of(baseCurrency, rates, lastUpdateUnix, nextUpdateUnix).withSnapshotId(snapshotId);
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated exchange rate table payload", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return ExchangeRateTable.class;
+    }
+
+    private static void putCode(ByteBuffer buffer, CurrencyCode currencyCode) {
+        buffer.put(CODE_BYTES[currencyCode.ordinal()]);
+    }
+
+    private static CurrencyCode getCode(ByteBuffer buffer) {
+        int index = letterIndex(buffer.get()) * LETTERS * LETTERS + letterIndex(buffer.get()) * LETTERS + letterIndex(buffer.get());
+        return index < 0 ? null : CODES_BY_LETTERS[index];
+    }
+
+    // Upper case letters map to 0-25, anything else to a value that makes the whole index negative
+    private static int letterIndex(byte letter) {
+        int index = letter - 'A';
+        return index >= 0 && index < LETTERS ? index : -LETTERS * LETTERS * LETTERS;
+    }
+
+    private static byte[][] codeBytes() {
+        CurrencyCode[] currencyCodes = CurrencyCode.values();
+        byte[][] codeBytes = new byte[currencyCodes.length][];
+        for (CurrencyCode currencyCode : currencyCodes) {
+            codeBytes[currencyCode.ordinal()] = currencyCode.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return codeBytes;
+    }
+
+    // Indexed by the three letters of the code, which avoids building a String or boxing per entry while decoding
+    private static CurrencyCode[] codesByLetters() {
+        CurrencyCode[] codes = new CurrencyCode[LETTERS * LETTERS * LETTERS];
+        for (CurrencyCode currencyCode : CurrencyCode.values()) {
+            byte[] code = CODE_BYTES[currencyCode.ordinal()];
+            codes[(code[0] - 'A') * LETTERS * LETTERS + (code[1] - 'A') * LETTERS + code[2] - 'A'] = currencyCode;
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,141 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.PASSWORD_HASHING_UNAVAILABLE_ERROR;
+
+/**
+ * BCrypt on a small dedicated executor (a bulkhead), so registration and login spikes can only ever occupy these
+ * threads' worth of CPU and never starve the threads serving transfers. Callers wait for their hash; once the
+ * queue is full further work is refused with {@link PasswordHashingUnavailableException}, which suggests retrying
+ * once a full queue could have drained at the target time per hash.
+ * <p>
+ * The cost is calibrated at startup to the highest one whose hash takes no longer than the target, never below
+ * the configured minimum. Stored hashes of a lower cost report {@link #upgradeEncoding(String)}, so the
+ * authentication provider rehashes them on the next successful login; a higher cost, e.g. from a node that
+ * calibrated on faster hardware, is kept rather than weakened.
+ */
+public class HashingPasswordEncoder implements PasswordEncoder {
+    private static final Logger log = LoggerFactory.getLogger(HashingPasswordEncoder.class);
+
+    private static final int MAX_STRENGTH = 31;
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    public HashingPasswordEncoder(MeterRegistry meterRegistry, int threads, int queueCapacity,
+                                  long targetMillis, int minStrength) {
+        this.strength = calibrate(targetMillis, minStrength);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.encodeTimer = Timer.builder("security.password.hashing").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("security.password.hashing").tag("operation", "matches").register(meterRegistry);
+        this.rejected = meterRegistry.counter("security.password.hashing.rejected");
+        this.retryAfterSeconds = Math.max(1, (long) Math.ceil(queueCapacity * targetMillis / (threads * 1000.0)));
+        Gauge.builder("security.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.strength", this, HashingPasswordEncoder::getStrength)
+                .register(meterRegistry);
+        log.info("Password hashing calibrated to BCrypt cost {} for a {} ms target", strength, targetMillis);
+    }
+
+    // The cost doubles the work with each step, so one measured hash at the minimum predicts the others
+    private static int calibrate(long targetMillis, int minStrength) {
+        new BCryptPasswordEncoder(4).encode("calibration");
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(minStrength).encode("calibration");
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        int strength = minStrength;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T hash(Timer timer, Callable<T> work) {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, retryAfterSeconds);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failed password checks per username and per source address over a sliding window. Once either reaches its limit
+ * further attempts are refused before the client is loaded or a password hashed, so a credential stuffing burst
+ * cannot turn into BCrypt work. Only confirmed failures count towards those limits; a successful login clears the
+ * failures of its username, not of its address.
+ * <p>
+ * Attempts still running are held in separate, bounded in-flight counters by {@link #tryAcquire(String, String)}
+ * and handed back however they end, so a parallel guessing burst is cut off at that bound before its failures are
+ * recorded, while a client with many successful requests in flight never uses up its failure budget.
+ * Each key keeps two counters (the sliding window counter approximation) and all key sets are bounded, so memory
+ * stays constant however many usernames or addresses an attack rotates through.
+ */
+@Component
+public class LoginThrottle {
+    static final String USERNAME_SCOPE = "username";
+    static final String ADDRESS_SCOPE = "address";
+
+    private final MeterRegistry meterRegistry;
+    private final long windowMillis;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerAddress;
+    private final int maxInFlightPerUsername;
+    private final int maxInFlightPerAddress;
+    private final Cache<String, FailureWindow> usernameFailures;
+    private final Cache<String, FailureWindow> addressFailures;
+    private final Cache<String, AtomicInteger> usernameInFlight;
+    private final Cache<String, AtomicInteger> addressInFlight;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.window-ms}") long windowMillis,
+                         @Value("${security.login-throttle.max-failures-per-username}") int maxFailuresPerUsername,
+                         @Value("${security.login-throttle.max-failures-per-address}") int maxFailuresPerAddress,
+                         @Value("${security.login-throttle.max-in-flight-per-username}") int maxInFlightPerUsername,
+                         @Value("${security.login-throttle.max-in-flight-per-address}") int maxInFlightPerAddress,
+                         @Value("${security.login-throttle.maximum-keys}") long maximumKeys
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.windowMillis = windowMillis;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.maxInFlightPerUsername = maxInFlightPerUsername;
+        this.maxInFlightPerAddress = maxInFlightPerAddress;
+        this.usernameFailures = newKeys(maximumKeys);
+        this.addressFailures = newKeys(maximumKeys);
+        this.usernameInFlight = newKeys(maximumKeys);
+        this.addressInFlight = newKeys(maximumKeys);
+        Gauge.builder("security.login.throttle.keys", usernameFailures, Cache::estimatedSize)
+                .tag("scope", USERNAME_SCOPE).register(meterRegistry);
+        Gauge.builder("security.login.throttle.keys", addressFailures, Cache::estimatedSize)
+                .tag("scope", ADDRESS_SCOPE).register(meterRegistry);
+    }
+
+    private <V> Cache<String, V> newKeys(long maximumKeys) {
+        // A key idle for two windows has no failures left to count
+        return Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofMillis(windowMillis * 2))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Admits an attempt unless the username or address has reached its failure limit or its in-flight bound. An
+     * admitted attempt must be settled with {@link #recordFailure}, {@link #recordSuccess} or {@link #release}.
+     */
+    public boolean tryAcquire(String username, String address) {
+        long now = nowMillis();
+        if (!isBelowLimit(addressFailures, address, now, maxFailuresPerAddress)) {
+            return throttled(ADDRESS_SCOPE);
+        }
+        if (!isBelowLimit(usernameFailures, username, now, maxFailuresPerUsername)) {
+            return throttled(USERNAME_SCOPE);
+        }
+        AtomicInteger addressAttempts = addressInFlight.get(address, key -> new AtomicInteger());
+        if (!tryReserve(addressAttempts, maxInFlightPerAddress)) {
+            return throttled(ADDRESS_SCOPE);
+        }
+        AtomicInteger usernameAttempts = usernameInFlight.get(username, key -> new AtomicInteger());
+        if (!tryReserve(usernameAttempts, maxInFlightPerUsername)) {
+            unreserve(addressAttempts);
+            return throttled(USERNAME_SCOPE);
+        }
+        return true;
+    }
+
+    public void recordFailure(String username, String address) {
+        release(username, address);
+        long now = nowMillis();
+        addressFailures.get(address, key -> new FailureWindow(now)).increment(now, windowMillis);
+        usernameFailures.get(username, key -> new FailureWindow(now)).increment(now, windowMillis);
+        meterRegistry.counter("security.login.failures").increment();
+    }
+
+    public void recordSuccess(String username, String address) {
+        release(username, address);
+        usernameFailures.invalidate(username);
+    }
+
+    /**
+     * Hands back the in-flight slot of an attempt that ended without a verdict on its password.
+     */
+    public void release(String username, String address) {
+        unreserve(usernameInFlight.getIfPresent(username));
+        unreserve(addressInFlight.getIfPresent(address));
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(windowMillis + 999));
+    }
+
+    private boolean isBelowLimit(Cache<String, FailureWindow> failures, String key, long now, int limit) {
+        FailureWindow window = failures.getIfPresent(key);
+        return window == null || window.isBelow(now, windowMillis, limit);
+    }
+
+    private boolean throttled(String scope) {
+        meterRegistry.counter("security.login.throttled", "scope", scope).increment();
+        return false;
+    }
+
+    private static boolean tryReserve(AtomicInteger attempts, int limit) {
+        int current;
+        do {
+            current = attempts.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!attempts.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    // An evicted counter is simply gone, and a counter never goes below zero
+    private static void unreserve(AtomicInteger attempts) {
+        if (attempts != null) {
+            attempts.getAndUpdate(current -> Math.max(0, current - 1));
+        }
+    }
+
+    private static long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    // Failures in the current fixed window plus the previous window's, weighted by how much of it the sliding
+    // window still overlaps
+    private static final class FailureWindow {
+        private long windowStart;
+        private int previous;
+        private int current;
+
+        private FailureWindow(long now) {
+            this.windowStart = now;
+        }
+
+        private synchronized boolean isBelow(long now, long windowMillis, int limit) {
+            roll(now, windowMillis);
+            double previousWeight = 1 - (double) (now - windowStart) / windowMillis;
+            return previous * previousWeight + current < limit;
+        }
+
+        private synchronized void increment(long now, long windowMillis) {
+            roll(now, windowMillis);
+            current++;
+        }
+
+        private void roll(long now, long windowMillis) {
+            long elapsed = now - windowStart;
+            if (elapsed >= windowMillis * 2) {
+                previous = 0;
+                current = 0;
+                windowStart = now;
+            } else if (elapsed >= windowMillis) {
+                previous = current;
+                current = 0;
+                windowStart += windowMillis;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.TOO_MANY_LOGIN_ATTEMPTS_ERROR;
+
+/**
+ * Guards Basic Auth: runs ahead of the Basic Auth filter, answers 429 to throttled attempts before the password is
+ * checked, and settles the attempts it lets through once their outcome is known.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final LoginThrottle loginThrottle;
+    private final ObjectMapper objectMapper;
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle, ObjectMapper objectMapper) {
+        this.loginThrottle = loginThrottle;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = basicUsername(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (username == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String address = request.getRemoteAddr();
+        if (!loginThrottle.tryAcquire(username, address)) {
+            writeThrottled(response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            loginThrottle.release(username, address);
+            throw e;
+        }
+        // The Basic Auth filter answers a failed password check with 401 and stops the chain
+        if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+            loginThrottle.recordFailure(username, address);
+        } else if (response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            loginThrottle.release(username, address);
+        } else {
+            loginThrottle.recordSuccess(username, address);
+        }
+    }
+
+    private void writeThrottled(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_LOGIN_ATTEMPTS_ERROR));
+    }
+
+    private static String basicUsername(String header) {
+        if (header == null || !header.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int separator = credentials.indexOf(':');
+            return separator < 0 ? null : credentials.substring(0, separator);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
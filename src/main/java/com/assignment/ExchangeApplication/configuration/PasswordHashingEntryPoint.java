@@ -0,0 +1,43 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import java.io.IOException;
+
+/**
+ * Answers a password check refused by a saturated hashing pool with 503 and {@code Retry-After}, so Basic Auth
+ * clients back off instead of being told their password is wrong; every other failure goes to the delegate.
+ */
+public class PasswordHashingEntryPoint implements AuthenticationEntryPoint {
+    private final AuthenticationEntryPoint delegate;
+    private final ObjectMapper objectMapper;
+
+    public PasswordHashingEntryPoint(AuthenticationEntryPoint delegate, ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        if (!(authException instanceof PasswordHashingUnavailableException unavailable)) {
+            delegate.commence(request, response, authException);
+            return;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(unavailable.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getMessage()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static com.assignment.ExchangeApplication.configuration.CacheInvalidationBus.CLIENTS_REGION;
+
+/**
+ * Authenticated principals by username, so a stateless request does not load its client from the database every
+ * time. Plugged into the authentication provider as its {@link UserCache}: a cached principal whose password no
+ * longer matches is reloaded before the attempt is rejected, so a stale entry can never lock a client out.
+ * Entries expire after a short time to live and are dropped when any node publishes a change to the client.
+ * Hit rate, size and evictions are published as the {@code cache.*} meters tagged {@code cache=principals}.
+ */
+@Component
+public class PrincipalCache implements UserCache {
+    static final String CACHE_NAME = "principals";
+
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(CacheInvalidationBus cacheInvalidationBus,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.maximum-size}") long maximumSize,
+                          @Value("${security.principal-cache.time-to-live-ms}") long timeToLiveMillis
+    ) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(timeToLiveMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+        cacheInvalidationBus.subscribe(CLIENTS_REGION, this::onInvalidation);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return principals.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        principals.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        principals.invalidate(username);
+    }
+
+    private void onInvalidation(String username) {
+        if (username == null) {
+            principals.invalidateAll();
+        } else {
+            principals.invalidate(username);
+        }
+    }
+}
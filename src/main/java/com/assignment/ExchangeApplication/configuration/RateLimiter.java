@@ -0,0 +1,133 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-client token buckets, one set per endpoint group, so one client flooding transfers cannot starve the others.
+ * Buckets live in memory by default, bounded in number and dropped once idle long enough to have refilled. With
+ * {@code rate-limit.redis.enabled} the buckets are kept in Redis instead and shared by all nodes, updated
+ * atomically by a script; should Redis fail, the node falls back to its local buckets.
+ */
+@Component
+public class RateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    public enum Group { READS, WRITES }
+
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    // Refills by the time elapsed on the Redis clock, then takes a token; returns the whole tokens left or -1
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'at')
+            local tokens = tonumber(bucket[1]) or capacity
+            local at = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - at) * rate / 1000000)
+            local remaining = -1
+            if tokens >= 1 then
+                tokens = tokens - 1
+                remaining = math.floor(tokens)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'at', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return remaining
+            """, Long.class);
+
+    private final MeterRegistry meterRegistry;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean redisEnabled;
+    private final Map<Group, Limit> limits = new EnumMap<>(Group.class);
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       RedisTemplate<String, Object> redisTemplate,
+                       @Value("${rate-limit.reads.capacity}") long readCapacity,
+                       @Value("${rate-limit.reads.refill-per-second}") double readRefillPerSecond,
+                       @Value("${rate-limit.writes.capacity}") long writeCapacity,
+                       @Value("${rate-limit.writes.refill-per-second}") double writeRefillPerSecond,
+                       @Value("${rate-limit.maximum-clients}") long maximumClients,
+                       @Value("${rate-limit.redis.enabled}") boolean redisEnabled
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        limits.put(Group.READS, new Limit(readCapacity, readRefillPerSecond, maximumClients));
+        limits.put(Group.WRITES, new Limit(writeCapacity, writeRefillPerSecond, maximumClients));
+    }
+
+    public Decision tryAcquire(Group group, String clientId) {
+        Limit limit = limits.get(group);
+        long remaining = redisEnabled ? tryAcquireShared(group, limit, clientId) : tryAcquireLocal(limit, clientId);
+        boolean allowed = remaining >= 0;
+        meterRegistry.counter("rate.limit.requests", "group", group.name().toLowerCase(),
+                "outcome", allowed ? "allowed" : "limited").increment();
+        long tokensMissing = limit.capacity - Math.max(remaining, 0);
+        return new Decision(allowed, limit.capacity, Math.max(remaining, 0),
+                seconds(tokensMissing / limit.refillPerSecond), allowed ? 0 : seconds(1 / limit.refillPerSecond));
+    }
+
+    private long tryAcquireLocal(Limit limit, String clientId) {
+        long now = System.nanoTime();
+        return limit.buckets.get(clientId, key -> new TokenBucket(limit.capacity, limit.refillPerSecond, now))
+                .tryConsume(now);
+    }
+
+    private long tryAcquireShared(Group group, Limit limit, String clientId) {
+        try {
+            Long remaining = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class),
+                    List.of("rate-limit:" + group.name().toLowerCase() + ":" + clientId),
+                    String.valueOf(limit.capacity), String.valueOf(limit.refillPerSecond),
+                    String.valueOf(limit.idleTimeout.toMillis()));
+            if (remaining != null) {
+                return remaining;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Shared rate limit unavailable, using the local bucket: {}", e.getMessage());
+        }
+        meterRegistry.counter("rate.limit.redis.failures").increment();
+        return tryAcquireLocal(limit, clientId);
+    }
+
+    private static long seconds(double seconds) {
+        return (long) Math.ceil(seconds);
+    }
+
+    private static final class Limit {
+        private final long capacity;
+        private final double refillPerSecond;
+        private final Duration idleTimeout;
+        private final Cache<String, TokenBucket> buckets;
+
+        private Limit(long capacity, double refillPerSecond, long maximumClients) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            // An idle bucket is full again by then, so dropping it changes nothing
+            this.idleTimeout = Duration.ofMillis((long) Math.ceil(capacity / refillPerSecond * 1000));
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumClients)
+                    .expireAfterAccess(idleTimeout)
+                    .executor(Runnable::run)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.REQUEST_TIMEOUT_ERROR;
+
+/**
+ * Separate bounded executors for read and write requests, so long history scans cannot hold the threads and
+ * connections deposits and transfers need. A handler hands its work to {@link #task(Pool, Callable)} and the
+ * servlet thread returns to Tomcat. Each pool's threads are its share of the connection pool; the shares must
+ * leave at least one connection for everything else, and {@link ConnectionShareDataSource} keeps other threads to
+ * what is left. Once a pool's queue is full further requests are refused with a
+ * {@link org.springframework.core.task.TaskRejectedException}.
+ * <p>
+ * A request still running after its pool's timeout is answered 504, but its work is not interrupted: a transfer
+ * may be about to commit, and the interrupt would leave its outcome to chance. As the work may still succeed the
+ * answer is not the retryable 503, which would invite a client to send the same transfer twice. The timeouts are
+ * set above the worst case of the work they bound, so this is a last resort.
+ * <p>
+ * Published per pool as {@code request.executor.active}, {@code request.executor.queue},
+ * {@code request.executor.saturation} (busy threads and queued requests over the pool's total capacity),
+ * {@code request.executor.rejected} and {@code request.executor.timeouts}.
+ */
+@Component
+public class RequestExecutors {
+    private static final Logger log = LoggerFactory.getLogger(RequestExecutors.class);
+
+    public enum Pool { READS, WRITES }
+
+    private static final ThreadLocal<Pool> CURRENT_POOL = new ThreadLocal<>();
+
+    private final Map<Pool, TaskExecutorAdapter> adapters = new EnumMap<>(Pool.class);
+    private final Map<Pool, ThreadPoolExecutor> executors = new EnumMap<>(Pool.class);
+    private final Map<Pool, Long> timeoutsMillis = new EnumMap<>(Pool.class);
+    private final Map<Pool, Counter> timeouts = new EnumMap<>(Pool.class);
+
+    public RequestExecutors(MeterRegistry meterRegistry,
+                            @Value("${request.executor.reads.threads}") int readThreads,
+                            @Value("${request.executor.reads.queue-capacity}") int readQueueCapacity,
+                            @Value("${request.executor.reads.timeout-ms}") long readTimeoutMillis,
+                            @Value("${request.executor.writes.threads}") int writeThreads,
+                            @Value("${request.executor.writes.queue-capacity}") int writeQueueCapacity,
+                            @Value("${request.executor.writes.timeout-ms}") long writeTimeoutMillis,
+                            @Value("${spring.datasource.hikari.maximum-pool-size}") int connectionPoolSize
+    ) {
+        sharedConnections(connectionPoolSize, readThreads, writeThreads);
+        register(meterRegistry, Pool.READS, readThreads, readQueueCapacity, readTimeoutMillis);
+        register(meterRegistry, Pool.WRITES, writeThreads, writeQueueCapacity, writeTimeoutMillis);
+    }
+
+    /**
+     * @return the connections left for threads outside the request executors
+     */
+    public static int sharedConnections(int connectionPoolSize, int readThreads, int writeThreads) {
+        int shared = connectionPoolSize - readThreads - writeThreads;
+        if (shared < 1) {
+            throw new IllegalStateException("Request executors need " + (readThreads + writeThreads)
+                    + " connections, leaving none of the " + connectionPoolSize + " in the pool for other requests");
+        }
+        return shared;
+    }
+
+    /**
+     * @return the pool the calling thread belongs to, empty outside the request executors
+     */
+    public static Optional<Pool> currentPool() {
+        return Optional.ofNullable(CURRENT_POOL.get());
+    }
+
+    private void register(MeterRegistry meterRegistry, Pool pool, int threads, int queueCapacity, long timeoutMillis) {
+        String name = pool.name().toLowerCase(Locale.ROOT);
+        Counter rejected = meterRegistry.counter("request.executor.rejected", "pool", name);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(() -> {
+                        CURRENT_POOL.set(pool);
+                        runnable.run();
+                    }, "request-" + name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, saturated) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Request executor for " + name + " is saturated");
+                });
+        Gauge.builder("request.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("request.executor.queue", executor, current -> current.getQueue().size())
+                .tag("pool", name)
+                .description("Requests waiting for a thread of the pool")
+                .register(meterRegistry);
+        Gauge.builder("request.executor.saturation", executor,
+                        current -> (double) (current.getActiveCount() + current.getQueue().size())
+                                / (threads + queueCapacity))
+                .tag("pool", name)
+                .register(meterRegistry);
+        executors.put(pool, executor);
+        timeoutsMillis.put(pool, timeoutMillis);
+        timeouts.put(pool, meterRegistry.counter("request.executor.timeouts", "pool", name));
+        // Spring MVC cancels the task of a timed out request with an interrupt; its futures ignore that
+        adapters.put(pool, new TaskExecutorAdapter(executor) {
+            @Override
+            public Future<?> submit(Runnable task) {
+                return new NonInterruptingFuture<>(super.submit(task));
+            }
+
+            @Override
+            public <T> Future<T> submit(Callable<T> task) {
+                return new NonInterruptingFuture<>(super.submit(task));
+            }
+        });
+    }
+
+    /**
+     * Wraps the handler's work so Spring MVC runs it on the given pool. The handler's result is expected to be a
+     * {@link ResponseEntity}, as a timed out request is answered with one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> WebAsyncTask<T> task(Pool pool, Callable<T> work) {
+        WebAsyncTask<T> task = new WebAsyncTask<>(timeoutsMillis.get(pool), adapters.get(pool), work);
+        task.onTimeout(() -> {
+            timeouts.get(pool).increment();
+            log.warn("Request on the {} executor timed out, leaving its work to finish", pool);
+            return (T) ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT, REQUEST_TIMEOUT_ERROR));
+        });
+        return task;
+    }
+
+    public ThreadPoolExecutor getExecutor(Pool pool) {
+        return executors.get(pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private record NonInterruptingFuture<T>(Future<T> delegate) implements Future<T> {
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return delegate.cancel(false);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            return delegate.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.get(timeout, unit);
+        }
+    }
+}
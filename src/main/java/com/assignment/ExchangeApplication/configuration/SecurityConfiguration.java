@@ -1,24 +1,30 @@
 package com.assignment.ExchangeApplication.configuration;
 
-import com.assignment.ExchangeApplication.repository.ClientRepository;
-import com.assignment.ExchangeApplication.service.ClientServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -26,27 +32,52 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfiguration {
 
     @Bean
-    public UserDetailsService userDetailsService(ClientRepository clientRepository,
-                                                 PasswordEncoder passwordEncoder) {
-        return new ClientServiceImpl(clientRepository, passwordEncoder);
-    }
-
-    @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception{
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           AccessTokenCodec accessTokenCodec,
+                                           LoginThrottle loginThrottle,
+                                           RateLimiter rateLimiter,
+                                           AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                           @Value("${concurrency-limit.retry-after-seconds}") long concurrencyRetryAfterSeconds,
+                                           ObjectMapper objectMapper,
+                                           @Value("${security.basic-auth.enabled}") boolean basicAuthEnabled
+    ) throws Exception{
+        if (basicAuthEnabled) {
+            BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+            basicEntryPoint.setRealmName("Realm");
+            http
+                    .httpBasic(basic -> basic
+                            .authenticationEntryPoint(new PasswordHashingEntryPoint(basicEntryPoint, objectMapper)))
+                    .addFilterBefore(new LoginThrottleFilter(loginThrottle, objectMapper), BasicAuthenticationFilter.class);
+        } else {
+            http.exceptionHandling(exceptions -> exceptions
+                    .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        }
         http
-                .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(new BearerTokenAuthenticationFilter(accessTokenCodec), BasicAuthenticationFilter.class)
+                .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), AuthorizationFilter.class)
+                .addFilterAfter(new ConcurrencyLimitFilter(concurrencyLimiter, objectMapper, concurrencyRetryAfterSeconds),
+                        AuthorizationFilter.class)
                 .csrf(CsrfConfigurer::disable)
                 .authorizeHttpRequests(
                         authorize -> authorize
+                                // Handlers on a request executor were authorized on the original dispatch
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/error").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/api/client/register").anonymous()
+                                .requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll()
                                 .requestMatchers(HttpMethod.GET,"/api/client/").authenticated()
                                 .requestMatchers(HttpMethod.POST,"/api/account/create").authenticated()
                                 .requestMatchers(HttpMethod.GET, "/api/account/{clientId}").authenticated()
                                 .requestMatchers(HttpMethod.POST, "/api/transaction/deposit").authenticated()
                                 .requestMatchers(HttpMethod.POST, "/api/transaction/withdraw").authenticated()
+                                .requestMatchers(HttpMethod.POST, "/api/transaction/quote").authenticated()
                                 .requestMatchers(HttpMethod.POST, "/api/transaction/transfer").authenticated()
+                                .requestMatchers(HttpMethod.POST, "/api/transaction/transfer/batch").authenticated()
                                 .requestMatchers(HttpMethod.GET, "/api/transaction/{accountId}").authenticated()
+                                .requestMatchers(HttpMethod.GET, "/api/fx/history").authenticated()
+                                .requestMatchers(HttpMethod.POST, "/api/fx/convert").authenticated()
+                                .requestMatchers("/actuator/health").permitAll()
+                                .requestMatchers("/actuator/**").authenticated()
 
                 )
                 .sessionManagement(session -> session
@@ -59,11 +90,16 @@ public class SecurityConfiguration {
 
     @Bean
     public AuthenticationProvider authenticationProvider(
-            ClientRepository clientRepository,
-            PasswordEncoder passwordEncoder
+            UserDetailsService userDetailsService,
+            UserDetailsPasswordService userDetailsPasswordService,
+            PasswordEncoder passwordEncoder,
+            PrincipalCache principalCache
     ) {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService(clientRepository, passwordEncoder));
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserCache(principalCache);
+        // Rehashes the stored password on a successful login when its cost differs from the calibrated one
+        authenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authenticationProvider;
     }
 
@@ -73,9 +109,12 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.hashing.threads}") int threads,
+                                           @Value("${security.password.hashing.queue-capacity}") int queueCapacity,
+                                           @Value("${security.password.hashing.target-ms}") long targetMillis,
+                                           @Value("${security.password.hashing.min-strength}") int minStrength
+    ) {
+        return new HashingPasswordEncoder(meterRegistry, threads, queueCapacity, targetMillis, minStrength);
     }
 }
-
-
@@ -0,0 +1,174 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache: a bounded in-process Caffeine tier (L1) in front of a shared cache (L2, Redis). Reads are served
+ * from L1 without any I/O and fall back to L2, promoting what they find. Writes and evictions go to both tiers.
+ * Hits, misses and evictions are published per tier as {@code cache.tier.gets} and {@code cache.tier.evictions}.
+ * Every write or eviction is also broadcast on the {@link CacheInvalidationBus}, so other nodes drop their L1 copy
+ * and read the new value from L2.
+ * <p>
+ * Every invalidation, local or remote, advances a generation once L2 has changed and before L1 is touched. A
+ * promotion withdraws its copy if the generation moved while it read L2, as the value it read may predate the
+ * invalidation that just went past it.
+ */
+public class TieredCache implements Cache {
+    static final String LOCAL_TIER = "l1";
+    static final String SHARED_TIER = "l2";
+
+    private final Cache sharedCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final AtomicLong invalidationGeneration = new AtomicLong();
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter localEvictions;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedEvictions;
+
+    public TieredCache(Cache sharedCache, CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                       long maximumSize, Duration timeToLive) {
+        this.sharedCache = sharedCache;
+        this.invalidationBus = invalidationBus;
+        this.localHits = counter(meterRegistry, "cache.tier.gets", LOCAL_TIER, "hit");
+        this.localMisses = counter(meterRegistry, "cache.tier.gets", LOCAL_TIER, "miss");
+        this.localEvictions = counter(meterRegistry, "cache.tier.evictions", LOCAL_TIER, null);
+        this.sharedHits = counter(meterRegistry, "cache.tier.gets", SHARED_TIER, "hit");
+        this.sharedMisses = counter(meterRegistry, "cache.tier.gets", SHARED_TIER, "miss");
+        this.sharedEvictions = counter(meterRegistry, "cache.tier.evictions", SHARED_TIER, null);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .evictionListener((key, value, cause) -> localEvictions.increment())
+                .executor(Runnable::run)
+                .build();
+        invalidationBus.subscribe(CacheInvalidationBus.cacheRegion(getName()), this::onRemoteInvalidation);
+    }
+
+    @Override
+    public String getName() {
+        return sharedCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+        long generation = invalidationGeneration.get();
+        ValueWrapper wrapper = sharedCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            sharedMisses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        localCache.put(key, wrapper.get());
+        if (invalidationGeneration.get() != generation) {
+            localCache.asMap().remove(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        sharedCache.put(key, value);
+        invalidationGeneration.incrementAndGet();
+        localCache.put(key, value);
+        invalidationBus.publish(CacheInvalidationBus.cacheRegion(getName()), String.valueOf(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedEvictions.increment();
+        sharedCache.evict(key);
+        invalidationGeneration.incrementAndGet();
+        localCache.invalidate(key);
+        invalidationBus.publish(CacheInvalidationBus.cacheRegion(getName()), String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        sharedCache.clear();
+        invalidationGeneration.incrementAndGet();
+        localCache.invalidateAll();
+        invalidationBus.publish(CacheInvalidationBus.cacheRegion(getName()), null);
+    }
+
+    /**
+     * Drops the in-process copy only, leaving the shared tier untouched.
+     */
+    public void evictLocal(Object key) {
+        invalidationGeneration.incrementAndGet();
+        localCache.invalidate(key);
+    }
+
+    // Keys travel between nodes as strings, so local entries are matched on their string form
+    private void onRemoteInvalidation(String key) {
+        invalidationGeneration.incrementAndGet();
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.asMap().keySet().removeIf(localKey -> String.valueOf(localKey).equals(key));
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String name, String tier, String result) {
+        Counter.Builder builder = Counter.builder(name)
+                .tag("cache", sharedCache.getName())
+                .tag("tier", tier);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        return builder.register(meterRegistry);
+    }
+}
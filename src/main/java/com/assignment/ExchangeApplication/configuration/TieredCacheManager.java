@@ -0,0 +1,51 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every cache of the shared cache manager into a {@link TieredCache} with its own in-process tier, kept
+ * coherent across nodes through the {@link CacheInvalidationBus}.
+ */
+public class TieredCacheManager implements CacheManager {
+    private final CacheManager sharedCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTimeToLive;
+    private final Map<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager sharedCacheManager, CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                              long localMaximumSize, Duration localTimeToLive) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTimeToLive = localTimeToLive;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TieredCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache sharedCache = sharedCacheManager.getCache(name);
+        if (sharedCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name,
+                cacheName -> new TieredCache(sharedCache, invalidationBus, meterRegistry, localMaximumSize, localTimeToLive));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return sharedCacheManager.getCacheNames();
+    }
+}
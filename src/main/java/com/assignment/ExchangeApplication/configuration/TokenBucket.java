@@ -0,0 +1,40 @@
+package com.assignment.ExchangeApplication.configuration;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the token count and the time it was last topped up change together through a single
+ * compare-and-set, so concurrent requests never block each other. Tokens are added continuously at the refill
+ * rate up to the capacity, which is also the largest burst allowed.
+ */
+public class TokenBucket {
+    private final long capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Takes a token, returning the whole tokens left, or -1 when the bucket is empty.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity,
+                    current.tokens() + Math.max(0, nowNanos - current.refilledAtNanos()) * tokensPerNano);
+            if (tokens < 1) {
+                return -1;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(nowNanos, current.refilledAtNanos())))) {
+                return (long) (tokens - 1);
+            }
+        }
+    }
+}
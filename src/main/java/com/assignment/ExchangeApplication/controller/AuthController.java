@@ -0,0 +1,80 @@
+package com.assignment.ExchangeApplication.controller;
+
+import com.assignment.ExchangeApplication.configuration.AccessTokenCodec;
+import com.assignment.ExchangeApplication.configuration.LoginThrottle;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.assignment.ExchangeApplication.model.dto.TokenRequest;
+import com.assignment.ExchangeApplication.model.dto.TokenResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.INVALID_CREDENTIALS_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.TOO_MANY_LOGIN_ATTEMPTS_ERROR;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private final AuthenticationManager authenticationManager;
+    private final AccessTokenCodec accessTokenCodec;
+    private final LoginThrottle loginThrottle;
+
+    public AuthController(AuthenticationManager authenticationManager,
+                          AccessTokenCodec accessTokenCodec,
+                          LoginThrottle loginThrottle
+    ) {
+        this.authenticationManager = authenticationManager;
+        this.accessTokenCodec = accessTokenCodec;
+        this.loginThrottle = loginThrottle;
+    }
+
+    // The password is verified here once; the token then authenticates requests without BCrypt
+    @PostMapping("/token")
+    public ResponseEntity<Object> issueToken(@RequestBody @Valid TokenRequest tokenRequest, HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!loginThrottle.tryAcquire(tokenRequest.getUsername(), address)) {
+            log.warn("Throttled access token request for {} from {}", tokenRequest.getUsername(), address);
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_LOGIN_ATTEMPTS_ERROR);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getRetryAfterSeconds()))
+                    .body(errorResponse);
+        }
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(
+                    tokenRequest.getUsername(), tokenRequest.getPassword()));
+        } catch (PasswordHashingUnavailableException e) {
+            loginThrottle.release(tokenRequest.getUsername(), address);
+            log.warn("Password hashing saturated, refusing access token request for {}", tokenRequest.getUsername());
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(errorResponse);
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(tokenRequest.getUsername(), address);
+            log.warn("Failed to issue access token for {}", tokenRequest.getUsername());
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.UNAUTHORIZED, INVALID_CREDENTIALS_ERROR);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+        loginThrottle.recordSuccess(tokenRequest.getUsername(), address);
+        Client client = (Client) authentication.getPrincipal();
+        log.debug("Issued access token for user ID: {}", client.getId());
+        TokenResponse tokenResponse = new TokenResponse(accessTokenCodec.issue(client), "Bearer",
+                accessTokenCodec.getTimeToLive().toSeconds());
+        return ResponseEntity.status(HttpStatus.OK).body(tokenResponse);
+    }
+}
@@ -1,6 +1,7 @@
 package com.assignment.ExchangeApplication.controller;
 
 import com.assignment.ExchangeApplication.exceptions.EmailExistsException;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
 import com.assignment.ExchangeApplication.exceptions.UsernameExistsException;
 import com.assignment.ExchangeApplication.model.Client;
 import com.assignment.ExchangeApplication.model.ErrorResponse;
@@ -14,6 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.CLIENT_NOT_FOUND_ERROR;
+
 @RestController
 @RequestMapping("/api/client")
 public class ClientController {
@@ -38,13 +43,22 @@ public class ClientController {
         } catch (IllegalArgumentException e) {
             ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (PasswordHashingUnavailableException e) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
         }
     }
 
+    // Token principals carry only the client ID, username and role, so the profile is read from the database
     @GetMapping("/")
-    public ResponseEntity<Client> getClientInfo(Authentication authentication) {
-        Client client = (Client) authentication.getPrincipal();
-        log.debug("Got client info for user ID: {}", client.getId());
-        return ResponseEntity.status(HttpStatus.OK).body(client);
+    public ResponseEntity<Object> getClientInfo(Authentication authentication) {
+        Client principal = (Client) authentication.getPrincipal();
+        Optional<Client> client = clientService.getClientById(principal.getId());
+        if (client.isEmpty()) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND, CLIENT_NOT_FOUND_ERROR);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+        log.debug("Got client info for user ID: {}", principal.getId());
+        return ResponseEntity.status(HttpStatus.OK).body(client.get());
     }
 }
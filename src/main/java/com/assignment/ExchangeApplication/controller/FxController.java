@@ -0,0 +1,74 @@
+package com.assignment.ExchangeApplication.controller;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.dto.HistoricalRate;
+import com.assignment.ExchangeApplication.service.ExchangeRateHistoryStore;
+import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import com.assignment.ExchangeApplication.service.interfaces.FxConversionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.Instant;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
+
+@RestController
+@RequestMapping("api/fx")
+public class FxController {
+    private static final Logger log = LoggerFactory.getLogger(FxController.class);
+
+    private final ExchangeRateHistoryStore historyStore;
+    private final CurrencyExchangeService currencyExchangeService;
+    private final FxConversionService fxConversionService;
+    private final ObjectMapper objectMapper;
+
+    public FxController(ExchangeRateHistoryStore historyStore,
+                        CurrencyExchangeService currencyExchangeService,
+                        FxConversionService fxConversionService,
+                        ObjectMapper objectMapper
+    ) {
+        this.historyStore = historyStore;
+        this.currencyExchangeService = currencyExchangeService;
+        this.fxConversionService = fxConversionService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Items are read and results written as a stream; the rate table is resolved once, up front, so an FX outage
+    // is still reported with a proper status before any result is written
+    @PostMapping(value = "/convert", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> convert(InputStream items) {
+        ExchangeRateTable exchangeRates;
+        try {
+            exchangeRates = currencyExchangeService.getExchangeRates();
+        } catch (CurrencyExchangeException e) {
+            log.error("Currency exchange rate retrieval failed during bulk conversion");
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, RETRIEVE_EXCHANGE_RATE_ERROR);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+                    .body(results -> objectMapper.writeValue(results, errorResponse));
+        }
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                .body(results -> fxConversionService.convert(exchangeRates, items, results));
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<Object> getHistoricalRate(@RequestParam CurrencyCode from, @RequestParam CurrencyCode to,
+                                                    @RequestParam Instant at) {
+        try {
+            HistoricalRate historicalRate = historyStore.rateAsOf(from, to, at);
+            return ResponseEntity.status(HttpStatus.OK).body(historicalRate);
+        } catch (CurrencyExchangeException e) {
+            log.warn("No {} to {} exchange rate recorded as of {}", from, to, at);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(HttpStatus.NOT_FOUND, e.getMessage()));
+        }
+    }
+}
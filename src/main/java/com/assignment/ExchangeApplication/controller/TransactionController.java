@@ -1,14 +1,19 @@
 package com.assignment.ExchangeApplication.controller;
 
+import com.assignment.ExchangeApplication.configuration.RequestExecutors;
 import com.assignment.ExchangeApplication.enums.TransferStatus;
 import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.exceptions.AccountLockTimeoutException;
 import com.assignment.ExchangeApplication.exceptions.FailedAccountUpdateException;
 import com.assignment.ExchangeApplication.exceptions.NegativeAmountException;
 import com.assignment.ExchangeApplication.exceptions.PermissionDeniedException;
 import com.assignment.ExchangeApplication.model.ErrorResponse;
 import com.assignment.ExchangeApplication.model.Transaction;
 import com.assignment.ExchangeApplication.model.dto.AccountResponseDto;
+import com.assignment.ExchangeApplication.model.dto.BatchTransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransactionRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferQuote;
+import com.assignment.ExchangeApplication.model.dto.TransferQuoteRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferResult;
 import com.assignment.ExchangeApplication.service.interfaces.TransactionService;
@@ -16,6 +21,8 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,9 +31,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.ACCOUNT_CONFLICT_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.ACCOUNT_LOCK_TIMEOUT_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.OVERLOADED_ERROR;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.TRANSFER_ERROR;
 
@@ -35,87 +48,155 @@ import static com.assignment.ExchangeApplication.helpers.StatusMessages.TRANSFER
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final RequestExecutors requestExecutors;
 
     private static final Logger log = LoggerFactory.getLogger(TransactionController.class);
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, RequestExecutors requestExecutors) {
         this.transactionService = transactionService;
+        this.requestExecutors = requestExecutors;
     }
 
     @PostMapping("/deposit")
-    public ResponseEntity<AccountResponseDto> depositToAccount(Authentication authentication, @Valid @RequestBody TransactionRequest request) {
-        try {
-            AccountResponseDto updatedAccount = transactionService.depositAccount(authentication, request);
-            log.info("Deposit successful to account {}", updatedAccount.getIban());
-
-            return ResponseEntity.status(HttpStatus.OK).body(updatedAccount);
-        } catch (PermissionDeniedException e) {
-            log.warn("Permission denied: client tried to deposit funds to an unauthorized account {}", request.getAccountIban());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
-        } catch (EntityNotFoundException e) {
-            log.warn("Account not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+    public WebAsyncTask<ResponseEntity<Object>> depositToAccount(Authentication authentication, @Valid @RequestBody TransactionRequest request) {
+        return requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            try {
+                AccountResponseDto updatedAccount = transactionService.depositAccount(authentication, request);
+                log.info("Deposit successful to account {}", updatedAccount.getIban());
+
+                return ResponseEntity.status(HttpStatus.OK).body(updatedAccount);
+            } catch (PermissionDeniedException e) {
+                log.warn("Permission denied: client tried to deposit funds to an unauthorized account {}", request.getAccountIban());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+            } catch (AccountLockTimeoutException e) {
+                log.warn("Deposit to {} timed out waiting for the account lock", request.getAccountIban());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ACCOUNT_LOCK_TIMEOUT_ERROR));
+            } catch (EntityNotFoundException e) {
+                log.warn("Account not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+        });
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<Object> withdrawFromAccount(Authentication authentication, @Valid @RequestBody TransactionRequest request) {
-        try {
-            AccountResponseDto updatedAccount = transactionService.withdrawAccount(authentication, request);
-            log.info("Withdrawal successful from account {} ", updatedAccount.getIban());
-            return ResponseEntity.ok(updatedAccount);
-        } catch (PermissionDeniedException e) {
-            log.warn("Permission denied: client tried to withdraw funds to an unauthorized account {}", request.getAccountIban());
-
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(HttpStatus.FORBIDDEN, e.getMessage()));
-        } catch (NegativeAmountException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
-        } catch (EntityNotFoundException e) {
-            log.warn("Account not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+    public WebAsyncTask<ResponseEntity<Object>> withdrawFromAccount(Authentication authentication, @Valid @RequestBody TransactionRequest request) {
+        return requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            try {
+                AccountResponseDto updatedAccount = transactionService.withdrawAccount(authentication, request);
+                log.info("Withdrawal successful from account {} ", updatedAccount.getIban());
+                return ResponseEntity.ok(updatedAccount);
+            } catch (PermissionDeniedException e) {
+                log.warn("Permission denied: client tried to withdraw funds to an unauthorized account {}", request.getAccountIban());
+
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(HttpStatus.FORBIDDEN, e.getMessage()));
+            } catch (NegativeAmountException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage()));
+            } catch (OptimisticLockingFailureException e) {
+                log.warn("Withdrawal from {} kept conflicting with concurrent updates", request.getAccountIban());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(HttpStatus.CONFLICT, ACCOUNT_CONFLICT_ERROR));
+            } catch (AccountLockTimeoutException e) {
+                log.warn("Withdrawal from {} timed out waiting for the account lock", request.getAccountIban());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ACCOUNT_LOCK_TIMEOUT_ERROR));
+            } catch (EntityNotFoundException e) {
+                log.warn("Account not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+        });
+    }
+
+    @PostMapping("/quote")
+    public WebAsyncTask<ResponseEntity<Object>> quoteTransfer(Authentication authentication, @Valid @RequestBody TransferQuoteRequest quoteRequest) {
+        return requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            try {
+                TransferQuote quote = transactionService.quoteTransfer(authentication, quoteRequest);
+                return ResponseEntity.status(HttpStatus.OK).body(quote);
+            } catch (PermissionDeniedException e) {
+                log.warn("Permission denied: client tried to quote a transfer from an unauthorized account {}", quoteRequest.getSourceAccountNumber());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(HttpStatus.FORBIDDEN, e.getMessage()));
+            } catch (EntityNotFoundException e) {
+                log.warn("Source account not found for quote");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(HttpStatus.NOT_FOUND, e.getMessage()));
+            } catch (CurrencyExchangeException e) {
+                log.error("Currency exchange rate retrieval failed during quote for {}", quoteRequest.getSourceAccountNumber());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, RETRIEVE_EXCHANGE_RATE_ERROR));
+            }
+        });
     }
 
     @PostMapping("/transfer")
-    public  ResponseEntity<TransferResult> transferFundsBetweenAccounts(Authentication authentication, @Valid @RequestBody TransferRequest transferRequest){
-        try {
-            TransferResult transferResult = transactionService.transferBetweenAccounts(authentication, transferRequest);
-            if (transferResult.getTransferStatus().equals(TransferStatus.SUCCESSFUL)){
-                log.info("Transfer successful from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
-                return ResponseEntity.status(HttpStatus.OK).body(transferResult);
+    public WebAsyncTask<ResponseEntity<TransferResult>> transferFundsBetweenAccounts(Authentication authentication, @Valid @RequestBody TransferRequest transferRequest) {
+        return requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            try {
+                TransferResult transferResult = transactionService.transferBetweenAccounts(authentication, transferRequest);
+                if (transferResult.getTransferStatus().equals(TransferStatus.SUCCESSFUL)){
+                    log.info("Transfer successful from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
+                    return ResponseEntity.status(HttpStatus.OK).body(transferResult);
+                }
+                else {
+                    log.info("Transfer failed from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(transferResult);
+                }
             }
-            else {
-                log.info("Transfer failed from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(transferResult);
+            catch (CurrencyExchangeException e) {
+                log.error("Currency exchange rate retrieval failed during transfer from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new TransferResult(TransferStatus.FAILED, RETRIEVE_EXCHANGE_RATE_ERROR));
             }
-        }
-        catch (CurrencyExchangeException e) {
-            log.error("Currency exchange rate retrieval failed during transfer from {} to {}", transferRequest.getSourceAccountNumber(), transferRequest.getDestinationAccountNumber());
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new TransferResult(TransferStatus.FAILED, RETRIEVE_EXCHANGE_RATE_ERROR));
-        }
-        catch (FailedAccountUpdateException e) {
-            log.error("Account update failure during transfer");
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new TransferResult(TransferStatus.FAILED, TRANSFER_ERROR));
-        }
+            catch (AccountLockTimeoutException e) {
+                log.warn("Transfer from {} timed out waiting for the account lock", transferRequest.getSourceAccountNumber());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new TransferResult(TransferStatus.FAILED, ACCOUNT_LOCK_TIMEOUT_ERROR));
+            }
+            catch (FailedAccountUpdateException e) {
+                log.error("Account update failure during transfer");
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new TransferResult(TransferStatus.FAILED, TRANSFER_ERROR));
+            }
+            catch (OptimisticLockingFailureException e) {
+                log.warn("Transfer from {} kept conflicting with concurrent updates", transferRequest.getSourceAccountNumber());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new TransferResult(TransferStatus.FAILED, ACCOUNT_CONFLICT_ERROR));
+            }
+        });
+    }
+
+    @PostMapping("/transfer/batch")
+    public WebAsyncTask<ResponseEntity<List<TransferResult>>> transferFundsInBatch(Authentication authentication, @Valid @RequestBody BatchTransferRequest batchTransferRequest) {
+        return requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            try {
+                List<TransferResult> transferResults = transactionService.transferBatch(authentication, batchTransferRequest);
+                log.info("Processed batch of {} transfers", transferResults.size());
+                return ResponseEntity.status(HttpStatus.OK).body(transferResults);
+            } catch (AccountLockTimeoutException e) {
+                log.warn("Atomic batch of {} transfers timed out waiting for the account locks", batchTransferRequest.getTransfers().size());
+                List<TransferResult> transferResults = Collections.nCopies(batchTransferRequest.getTransfers().size(),
+                        new TransferResult(TransferStatus.FAILED, ACCOUNT_LOCK_TIMEOUT_ERROR));
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(transferResults);
+            }
+        });
     }
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<Page<Transaction>> getTransactionsById(Authentication authentication, @PathVariable UUID accountId, @RequestParam(defaultValue = "10") int limit,
-                                                                 @RequestParam(defaultValue = "0") int offset) {
-        Page<Transaction> page;
-        log.info("Getting transactions for account {} ", accountId);
-        try {
-            Pageable pageable = PageRequest.of(offset, limit, Sort.by("timestamp").descending());
-            page = transactionService.getTransactionsForAccount(authentication, accountId, pageable);
-        } catch (EntityNotFoundException e) {
-            log.warn("Account not found for ID {}", accountId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        } catch (PermissionDeniedException e) {
-            log.warn("Unauthorized access attempt");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
-        }
-        log.info("Got transactions for account {}", accountId);
-        return ResponseEntity.status(HttpStatus.OK).body(page);
+    public WebAsyncTask<ResponseEntity<Page<Transaction>>> getTransactionsById(Authentication authentication, @PathVariable UUID accountId, @RequestParam(defaultValue = "10") int limit,
+                                                                               @RequestParam(defaultValue = "0") int offset) {
+        return requestExecutors.task(RequestExecutors.Pool.READS, () -> {
+            Page<Transaction> page;
+            log.info("Getting transactions for account {} ", accountId);
+            try {
+                Pageable pageable = PageRequest.of(offset, limit, Sort.by("timestamp").descending());
+                page = transactionService.getTransactionsForAccount(authentication, accountId, pageable);
+            } catch (EntityNotFoundException e) {
+                log.warn("Account not found for ID {}", accountId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            } catch (PermissionDeniedException e) {
+                log.warn("Unauthorized access attempt");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+            }
+            log.info("Got transactions for account {}", accountId);
+            return ResponseEntity.status(HttpStatus.OK).body(page);
+        });
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleSaturatedExecutor(TaskRejectedException e) {
+        log.warn("Request rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED_ERROR));
     }
 }
@@ -0,0 +1,7 @@
+package com.assignment.ExchangeApplication.exceptions;
+
+public class AccountLockTimeoutException extends FailedAccountUpdateException {
+    public AccountLockTimeoutException(String message) {
+        super(message);
+    }
+}
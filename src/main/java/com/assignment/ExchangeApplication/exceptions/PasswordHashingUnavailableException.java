@@ -0,0 +1,16 @@
+package com.assignment.ExchangeApplication.exceptions;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class PasswordHashingUnavailableException extends AuthenticationServiceException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
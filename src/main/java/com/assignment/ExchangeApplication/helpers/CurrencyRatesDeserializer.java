@@ -0,0 +1,49 @@
+package com.assignment.ExchangeApplication.helpers;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams the upstream {@code rates} object straight into an ordinal-indexed array, without building an
+ * intermediate map or any {@code BigDecimal}. Currency codes unknown to {@link CurrencyCode} are skipped.
+ */
+public class CurrencyRatesDeserializer extends StdDeserializer<double[]> {
+    private static final Map<String, CurrencyCode> CURRENCY_CODES = new HashMap<>();
+
+    static {
+        for (CurrencyCode currencyCode : CurrencyCode.values()) {
+            CURRENCY_CODES.put(currencyCode.name(), currencyCode);
+        }
+    }
+
+    public CurrencyRatesDeserializer() {
+        super(double[].class);
+    }
+
+    @Override
+    public double[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return (double[]) context.handleUnexpectedToken(double[].class, parser);
+        }
+        double[] rates = ExchangeRateTable.emptyRates();
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            CurrencyCode currencyCode = CURRENCY_CODES.get(fieldName);
+            if (currencyCode != null && token.isNumeric()) {
+                rates[currencyCode.ordinal()] = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return rates;
+    }
+}
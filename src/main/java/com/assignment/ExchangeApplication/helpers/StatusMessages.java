@@ -7,11 +7,23 @@ public class StatusMessages {
     public static final String TRANSFER_SUCCEEDED = "Transfer Performed Successfully";
     public static final String EXCHANGE_UNAVAILABLE_ERROR = "Exchange rates API unavailable";
     public static final String RETRIEVE_EXCHANGE_RATE_ERROR = "Unable to retrieve exchange rates";
+    public static final String INVALID_CONVERSION_ITEM_ERROR = "Conversion item requires an amount and supported from and to currencies";
+    public static final String HISTORICAL_RATE_NOT_FOUND_ERROR = "No exchange rate recorded for the requested time";
     public static final String SOURCE_ACCOUNT_NOT_FOUND_ERROR = "Source account not found";
     public static final String DESTINATION_ACCOUNT_NOT_FOUND_ERROR = "Destination account not found";
     public static final String ACCOUNT_NOT_FOUND_ERROR = "Account not found";
     public static final String CLIENT_NOT_FOUND_ERROR = "Client not found";
+    public static final String INVALID_CREDENTIALS_ERROR = "Invalid username or password";
+    public static final String TOO_MANY_LOGIN_ATTEMPTS_ERROR = "Too many failed login attempts, please retry later";
+    public static final String PASSWORD_HASHING_UNAVAILABLE_ERROR = "Too many password checks in progress, please retry";
+    public static final String RATE_LIMIT_EXCEEDED_ERROR = "Rate limit exceeded, please retry later";
+    public static final String OVERLOADED_ERROR = "Service is overloaded, please retry later";
+    public static final String REQUEST_TIMEOUT_ERROR = "Request is taking longer than expected, check its outcome before retrying";
     public static final String IDENTICAL_SOURCE_AND_DESTINATION_ACCOUNT_ERROR = "Source and destination account are identical";
+    public static final String ACCOUNT_LOCK_TIMEOUT_ERROR = "Account is busy with another operation, please retry";
+    public static final String ACCOUNT_CONFLICT_ERROR = "Account was modified concurrently, please retry";
+    public static final String QUOTE_NOT_FOUND_ERROR = "Quote not found or expired";
+    public static final String QUOTE_MISMATCH_ERROR = "Transfer does not match the quote";
     public static final String TRANSFER_ERROR = "Failed to perform transfer, transaction has been rolled back";
     public static final String CREATE_ACCOUNT_ERROR = "Failed to create account";
     public static final String EMAIL_IN_USE_ERROR = "Email is in use";
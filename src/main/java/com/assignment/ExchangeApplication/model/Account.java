@@ -30,4 +30,7 @@ public class Account {
 
     private String iban;
 
+    @Version
+    private long version;
+
 }
@@ -1,12 +1,10 @@
 package com.assignment.ExchangeApplication.model;
 
-import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.helpers.CurrencyRatesDeserializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 
-import java.math.BigDecimal;
-import java.util.Map;
-
 @Data
 public class CurrencyExchangeResponse {
     @JsonProperty("result")
@@ -18,17 +16,18 @@ public class CurrencyExchangeResponse {
     @JsonProperty("terms_of_use")
     private String termsOfUse;
     @JsonProperty("time_last_update_unix")
-    private int timeLastUpdateUnix;
+    private long timeLastUpdateUnix;
     @JsonProperty("time_last_update_utc")
     private String timeLastUpdateUtc;
     @JsonProperty("time_next_update_unix")
-    private int timeNextUpdateUnix;
+    private long timeNextUpdateUnix;
     @JsonProperty("time_next_update_utc")
     private String timeNextUpdateUtc;
     @JsonProperty("time_eol_unix")
-    private int timeEolUnix;
+    private long timeEolUnix;
     @JsonProperty("base_code")
     private String baseCode;
-    private Map<CurrencyCode, BigDecimal> rates;
+    @JsonDeserialize(using = CurrencyRatesDeserializer.class)
+    private double[] rates;
 
 }
@@ -0,0 +1,47 @@
+package com.assignment.ExchangeApplication.model;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A rate table as fetched from a provider, kept so the application can start converting before the FX API answers
+ * and so past conversions can be reproduced from the snapshot id recorded on each transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_exchange_rate_snapshot_base_created", columnList = "baseCurrency, createdAt"))
+public class ExchangeRateSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private CurrencyCode baseCurrency;
+
+    private long lastUpdateUnix;
+
+    private String provider;
+
+    private String entityTag;
+
+    private String lastModified;
+
+    private LocalDateTime createdAt;
+
+    // Table encoded with ExchangeRateTableRedisSerializer, which carries its own format version
+    @Lob
+    @Column(nullable = false)
+    private byte[] rates;
+}
@@ -0,0 +1,134 @@
+package com.assignment.ExchangeApplication.model;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
+
+/**
+ * Immutable cross-rate table built from a single upstream fetch. Rates are stored per unit of the base currency
+ * in a primitive array indexed by {@link CurrencyCode#ordinal()}, missing currencies being {@code NaN}, so the
+ * rate between any two currencies is two array reads and a division. As {@link BigDecimal} that quotient is rounded
+ * to {@link #RATE_CONTEXT}, which drops the binary noise of the division (0.8500000000000001) before the rate is
+ * used in money math. Tables that have been persisted carry the id of their snapshot, which is recorded on every
+ * transaction converted with them.
+ */
+public final class ExchangeRateTable implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 3L;
+
+    public static final MathContext RATE_CONTEXT = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    private final CurrencyCode baseCurrency;
+    private final double[] ratesPerBase;
+    private final long lastUpdateUnix;
+    private final long nextUpdateUnix;
+    private final UUID snapshotId;
+
+    private ExchangeRateTable(CurrencyCode baseCurrency, double[] ratesPerBase, long lastUpdateUnix, long nextUpdateUnix,
+                              UUID snapshotId) {
+        this.baseCurrency = baseCurrency;
+        this.ratesPerBase = ratesPerBase;
+        this.lastUpdateUnix = lastUpdateUnix;
+        this.nextUpdateUnix = nextUpdateUnix;
+        this.snapshotId = snapshotId;
+    }
+
+    /**
+     * @param ratesPerBase rates indexed by {@link CurrencyCode#ordinal()}, {@code NaN} where unknown
+     */
+    public static ExchangeRateTable of(CurrencyCode baseCurrency, double[] ratesPerBase, long lastUpdateUnix, long nextUpdateUnix) {
+        if (ratesPerBase.length != CurrencyCode.values().length) {
+            throw new IllegalArgumentException("Expected one rate slot per currency code");
+        }
+        double[] rates = ratesPerBase.clone();
+        rates[baseCurrency.ordinal()] = 1.0;
+        return new ExchangeRateTable(baseCurrency, rates, lastUpdateUnix, nextUpdateUnix, null);
+    }
+
+    public static ExchangeRateTable fromRates(CurrencyCode baseCurrency, Map<CurrencyCode, BigDecimal> rates,
+                                              long lastUpdateUnix, long nextUpdateUnix) {
+        double[] ratesPerBase = emptyRates();
+        rates.forEach((currencyCode, rate) -> ratesPerBase[currencyCode.ordinal()] = rate.doubleValue());
+        return of(baseCurrency, ratesPerBase, lastUpdateUnix, nextUpdateUnix);
+    }
+
+    public static double[] emptyRates() {
+        double[] rates = new double[CurrencyCode.values().length];
+        Arrays.fill(rates, Double.NaN);
+        return rates;
+    }
+
+    public ExchangeRateTable withSnapshotId(UUID snapshotId) {
+        return new ExchangeRateTable(baseCurrency, ratesPerBase, lastUpdateUnix, nextUpdateUnix, snapshotId);
+    }
+
+    public ExchangeRateTable withNextUpdateUnix(long nextUpdateUnix) {
+        return new ExchangeRateTable(baseCurrency, ratesPerBase, lastUpdateUnix, nextUpdateUnix, snapshotId);
+    }
+
+    /**
+     * @return how many units of {@code to} one unit of {@code from} buys
+     */
+    public double rate(CurrencyCode from, CurrencyCode to) {
+        if (from == to) {
+            return 1.0;
+        }
+        double rate = ratesPerBase[to.ordinal()] / ratesPerBase[from.ordinal()];
+        if (Double.isNaN(rate) || Double.isInfinite(rate) || rate <= 0) {
+            throw new CurrencyExchangeException(RETRIEVE_EXCHANGE_RATE_ERROR);
+        }
+        return rate;
+    }
+
+    public BigDecimal getRate(CurrencyCode from, CurrencyCode to) {
+        return from == to ? BigDecimal.ONE : toDecimalRate(rate(from, to));
+    }
+
+    /**
+     * @return the rate rounded to {@link #RATE_CONTEXT}, without trailing zeros but never in exponent notation
+     */
+    public static BigDecimal toDecimalRate(double rate) {
+        BigDecimal rounded = BigDecimal.valueOf(rate).round(RATE_CONTEXT).stripTrailingZeros();
+        return rounded.scale() < 0 ? rounded.setScale(0) : rounded;
+    }
+
+    /**
+     * @return the rate of the given currency per unit of the base currency, {@code NaN} when unknown
+     */
+    public double ratePerBase(CurrencyCode currencyCode) {
+        return ratesPerBase[currencyCode.ordinal()];
+    }
+
+    public boolean supports(CurrencyCode currencyCode) {
+        return !Double.isNaN(ratesPerBase[currencyCode.ordinal()]);
+    }
+
+    public CurrencyCode getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public long getLastUpdateUnix() {
+        return lastUpdateUnix;
+    }
+
+    public long getNextUpdateUnix() {
+        return nextUpdateUnix;
+    }
+
+    /**
+     * @return the id of the persisted snapshot of this table, {@code null} when it has not been persisted
+     */
+    public UUID getSnapshotId() {
+        return snapshotId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.assignment.ExchangeApplication.model;
+
+/**
+ * A rate table together with the provider that served it and that provider's validators for conditional requests.
+ */
+public record FetchedExchangeRates(ExchangeRateTable table, String provider, String entityTag, String lastModified) {
+}
@@ -55,6 +55,10 @@ public class Transaction {
     @NotNull
     private BigDecimal destinationAmountCredited;
 
+    // Snapshot of the rate table used for the conversion, null when no conversion took place
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private UUID rateSnapshotId;
+
     @Transient
     private TransferType transferType;
 }
@@ -0,0 +1,9 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import java.math.BigDecimal;
+
+public interface AccountBalance {
+    BigDecimal getBalance();
+
+    long getVersion();
+}
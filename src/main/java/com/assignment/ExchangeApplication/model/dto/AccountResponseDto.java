@@ -25,4 +25,9 @@ public class AccountResponseDto {
         this.clientName = account.getClient().getName();
         this.iban = account.getIban();
     }
+
+    public AccountResponseDto(Account account, BigDecimal balance) {
+        this(account);
+        this.balance = balance;
+    }
 }
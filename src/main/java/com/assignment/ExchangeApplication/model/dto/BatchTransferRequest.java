@@ -0,0 +1,30 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 transfers")
+    private List<@Valid TransferRequest> transfers;
+
+    // all-or-nothing when true, otherwise every transfer commits on its own
+    private boolean atomic;
+
+    // An atomic batch holds the locks of all its accounts until it commits, so it is kept small
+    public static final int MAX_ATOMIC_TRANSFERS = 25;
+
+    @JsonIgnore
+    @AssertTrue(message = "An atomic batch can contain at most " + MAX_ATOMIC_TRANSFERS + " transfers")
+    public boolean isAtomicBatchWithinLimit() {
+        return !atomic || transfers == null || transfers.size() <= MAX_ATOMIC_TRANSFERS;
+    }
+}
@@ -0,0 +1,20 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionItem {
+
+    private BigDecimal amount; //in "from" currency
+
+    private CurrencyCode from;
+
+    private CurrencyCode to;
+}
@@ -0,0 +1,28 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConversionResult {
+
+    private BigDecimal amount;
+
+    private CurrencyCode from;
+
+    private CurrencyCode to;
+
+    private BigDecimal rate; //units of "to" per unit of "from"
+
+    private BigDecimal convertedAmount;
+
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class HistoricalRate {
+
+    private CurrencyCode from;
+
+    private CurrencyCode to;
+
+    private Instant at;
+
+    private Instant ratesUpdatedAt; //update time of the table the rate was taken from
+
+    private BigDecimal rate; //units of "to" per unit of "from"
+}
@@ -0,0 +1,12 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+    private String accessToken;
+    private String tokenType; // always Bearer
+    private long expiresIn; // seconds
+}
@@ -0,0 +1,32 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class TransferQuote {
+
+    private UUID quoteId;
+
+    private String sourceAccountNumber;
+
+    private CurrencyCode sourceCurrency;
+
+    private CurrencyCode destinationCurrency;
+
+    private BigDecimal amount; //in destination currency
+
+    private BigDecimal exchangeRate; //source currency units per destination currency unit
+
+    private BigDecimal sourceAmountDebited;
+
+    private Instant expiresAt;
+
+    private UUID rateSnapshotId;
+}
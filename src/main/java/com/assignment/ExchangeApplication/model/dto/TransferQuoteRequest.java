@@ -0,0 +1,23 @@
+package com.assignment.ExchangeApplication.model.dto;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class TransferQuoteRequest {
+
+    @NotBlank(message = "Source account number is required")
+    private String sourceAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Transfer amount must be greater than zero")
+    private BigDecimal amount; //in destination currency
+
+    @NotNull(message = "Destination currency is required")
+    private CurrencyCode destinationCurrency;
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Data
 public class TransferRequest {
@@ -27,4 +28,6 @@ public class TransferRequest {
     private String description;
 
     private CurrencyCode destinationCurrency;
+
+    private UUID quoteId;
 }
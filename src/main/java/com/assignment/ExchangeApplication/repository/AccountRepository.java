@@ -1,13 +1,41 @@
 package com.assignment.ExchangeApplication.repository;
 
 import com.assignment.ExchangeApplication.model.Account;
+import com.assignment.ExchangeApplication.model.dto.AccountBalance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     Account findByIban(String iban);
 
+    List<Account> findAllByIbanIn(Collection<String> ibans);
+
+    // Scalar projection, always hits the database even when the account is already in the persistence context
+    @Query("SELECT a.balance AS balance, a.version AS version FROM Account a WHERE a.id = :accountId")
+    Optional<AccountBalance> findBalanceById(@Param("accountId") UUID accountId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 WHERE a.id = :accountId")
+    int creditBalance(@Param("accountId") UUID accountId, @Param("amount") BigDecimal amount);
+
+    // Only succeeds when the balance stays non-negative and nobody changed the account since it was read,
+    // 0 affected rows means either insufficient funds or a concurrent update
+    @Transactional
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "WHERE a.id = :accountId AND a.version = :version AND a.balance >= :amount")
+    int debitBalance(@Param("accountId") UUID accountId, @Param("amount") BigDecimal amount, @Param("version") long version);
+
 }
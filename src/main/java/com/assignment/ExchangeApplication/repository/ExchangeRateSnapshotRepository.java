@@ -0,0 +1,14 @@
+package com.assignment.ExchangeApplication.repository;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.ExchangeRateSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExchangeRateSnapshotRepository extends JpaRepository<ExchangeRateSnapshot, UUID> {
+    Optional<ExchangeRateSnapshot> findFirstByBaseCurrencyOrderByCreatedAtDesc(CurrencyCode baseCurrency);
+}
@@ -0,0 +1,50 @@
+package com.assignment.ExchangeApplication.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes optimistic locking conflicts, retries and give-ups per endpoint, the endpoint being the
+ * {@code label} of the {@code @Retryable} method.
+ */
+@Component("accountConflictRetryListener")
+public class AccountConflictRetryListener implements RetryListener {
+    private static final Logger log = LoggerFactory.getLogger(AccountConflictRetryListener.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public AccountConflictRetryListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            meterRegistry.counter("account.optimistic.conflicts", "endpoint", endpoint(context)).increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        boolean gaveUp = throwable instanceof OptimisticLockingFailureException;
+        int retries = context.getRetryCount() - (throwable != null ? 1 : 0);
+        if (retries > 0) {
+            meterRegistry.counter("account.optimistic.retries", "endpoint", endpoint(context)).increment(retries);
+        }
+        if (gaveUp) {
+            log.warn("Giving up on {} after {} conflicting attempts", endpoint(context), context.getRetryCount());
+            meterRegistry.counter("account.optimistic.giveups", "endpoint", endpoint(context)).increment();
+        }
+    }
+
+    private String endpoint(RetryContext context) {
+        Object name = context.getAttribute(RetryContext.NAME);
+        return name != null ? name.toString() : "unknown";
+    }
+}
@@ -0,0 +1,136 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.exceptions.AccountLockTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.ACCOUNT_LOCK_TIMEOUT_ERROR;
+
+/**
+ * In-process lock striping for account balance updates. Each IBAN maps to one of a fixed number of stripes,
+ * so unrelated accounts almost never contend, while operations on the same account are serialized.
+ * Stripes are always acquired in ascending index order, which keeps multi-account operations deadlock free.
+ */
+@Component
+public class AccountLockManager {
+    private static final Logger log = LoggerFactory.getLogger(AccountLockManager.class);
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+    private final Timer lockWaitTimer;
+    private final Counter lockTimeoutCounter;
+
+    public AccountLockManager(MeterRegistry meterRegistry,
+                              @Value("${account.lock.stripes:0}") int stripeCount,
+                              @Value("${account.lock.timeout-ms:5000}") long timeoutMillis
+    ) {
+        int size = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors() * 16;
+        size = size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.lockWaitTimer = Timer.builder("account.lock.wait")
+                .description("Time spent waiting for account lock stripes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.lockTimeoutCounter = Counter.builder("account.lock.timeouts")
+                .description("Account lock acquisitions that gave up after the configured timeout")
+                .register(meterRegistry);
+        log.info("Account lock manager initialised with {} stripes", size);
+    }
+
+    /**
+     * Locks the stripes of all given IBANs. When closed inside an active transaction the stripes stay held
+     * until the transaction completes, so no other thread can read a balance that is not yet committed.
+     */
+    public AccountLock lock(String... ibans) {
+        int[] indexes = stripeIndexes(ibans);
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    lockTimeoutCounter.increment();
+                    log.warn("Timed out waiting for account lock on {}", Arrays.toString(ibans));
+                    throw new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR);
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR);
+        } finally {
+            lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (acquired < indexes.length) {
+                release(indexes, acquired);
+            }
+        }
+        return new AccountLock(indexes);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(String iban) {
+        int hash = iban.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int[] stripeIndexes(String... ibans) {
+        return Arrays.stream(ibans)
+                .mapToInt(this::stripeIndex)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private void release(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    public class AccountLock implements AutoCloseable {
+        private final int[] indexes;
+        private boolean closed;
+
+        private AccountLock(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        release(indexes, indexes.length);
+                    }
+                });
+            } else {
+                release(indexes, indexes.length);
+            }
+        }
+    }
+}
@@ -3,16 +3,19 @@ package com.assignment.ExchangeApplication.service;
 import com.assignment.ExchangeApplication.helpers.BankHelper;
 import com.assignment.ExchangeApplication.model.Account;
 import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.dto.AccountBalance;
 import com.assignment.ExchangeApplication.model.dto.AccountCreateRequest;
 import com.assignment.ExchangeApplication.repository.AccountRepository;
 import com.assignment.ExchangeApplication.repository.ClientRepository;
 import com.assignment.ExchangeApplication.service.interfaces.AccountService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -44,13 +47,14 @@ public class AccountServiceImpl implements AccountService {
             Account account = new Account();
             account.setCurrency(request.getCurrency());
             account.setBalance(initialAccountBalance);
-            account.setClient(client);
+            // The principal may come from an access token and carry only the ID, so link the managed client
+            account.setClient(clientRepository.getReferenceById(client.getId()));
             account.setIban(BankHelper.generateIban());
 
-            log.info("Creating account for {}", client.getName());
+            log.info("Creating account for {}", client.getUsername());
             return accountRepository.save(account);
         } catch (Exception e){
-            log.warn("Request is invalid, failed to create account for {}", client.getName());
+            log.warn("Request is invalid, failed to create account for {}", client.getUsername());
             throw new IllegalArgumentException(CREATE_ACCOUNT_ERROR);
         }
     }
@@ -60,6 +64,11 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findById(id);
     }
 
+    @Override
+    public Optional<AccountBalance> getAccountBalance(UUID id) {
+        return accountRepository.findBalanceById(id);
+    }
+
     @Override
     public List<Account> getAccountsByClientId(UUID clientId) {
         Client client = clientRepository.findById(clientId)
@@ -77,7 +86,24 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public void updateAccount(Account account) {
-        accountRepository.save(account);
+    public List<Account> getAccountsByIbans(Collection<String> ibans) {
+        return accountRepository.findAllByIbanIn(ibans);
+    }
+
+    @Override
+    public boolean creditAccount(UUID accountId, BigDecimal amount) {
+        return accountRepository.creditBalance(accountId, amount) == 1;
+    }
+
+    @Override
+    public boolean debitAccount(Account account, BigDecimal amount) {
+        if (accountRepository.debitBalance(account.getId(), amount, account.getVersion()) == 1) {
+            return true;
+        }
+        if (account.getBalance().compareTo(amount) < 0) {
+            return false;
+        }
+        log.info("Concurrent update detected on account {} at version {}", account.getId(), account.getVersion());
+        throw new ObjectOptimisticLockingFailureException(Account.class, account.getId());
     }
 }
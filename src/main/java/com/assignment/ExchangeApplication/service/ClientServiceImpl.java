@@ -1,5 +1,7 @@
 package com.assignment.ExchangeApplication.service;
 
+import com.assignment.ExchangeApplication.configuration.CacheInvalidationBus;
+import com.assignment.ExchangeApplication.configuration.PrincipalCache;
 import com.assignment.ExchangeApplication.enums.UserRole;
 import com.assignment.ExchangeApplication.exceptions.EmailExistsException;
 import com.assignment.ExchangeApplication.exceptions.UsernameExistsException;
@@ -11,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,24 +21,32 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
+import static com.assignment.ExchangeApplication.configuration.CacheInvalidationBus.CLIENTS_REGION;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.*;
 
 @Service
-public class ClientServiceImpl implements ClientService, UserDetailsService {
+public class ClientServiceImpl implements ClientService, UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger log = LoggerFactory.getLogger(ClientServiceImpl.class);
 
     private final ClientRepository clientRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final PrincipalCache principalCache;
 
 
     public ClientServiceImpl(ClientRepository clientRepository,
-                              PasswordEncoder passwordEncoder
+                              PasswordEncoder passwordEncoder,
+                              CacheInvalidationBus cacheInvalidationBus,
+                              PrincipalCache principalCache
     ) {
         this.clientRepository = clientRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.principalCache = principalCache;
     }
 
 
@@ -58,10 +69,12 @@ public class ClientServiceImpl implements ClientService, UserDetailsService {
             throw new UsernameExistsException(USERNAME_IN_USE_ERROR);
         }
 
+        // Hashing may be refused while the hashing executor is saturated, which is reported as such
+        String encodedPassword = passwordEncoder.encode(clientDto.getPassword());
         Client client = new Client();
         try {
             client.setEmail(clientDto.getEmail());
-            client.setPassword(passwordEncoder.encode(clientDto.getPassword()));
+            client.setPassword(encodedPassword);
             client.setName(clientDto.getName());
             client.setUsername(clientDto.getUsername());
             client.setRole(UserRole.USER);
@@ -72,10 +85,18 @@ public class ClientServiceImpl implements ClientService, UserDetailsService {
         catch (Exception e){
             throw new RuntimeException("Failed to register user");
         }
+        principalCache.removeUserFromCache(client.getUsername());
+        cacheInvalidationBus.publish(CLIENTS_REGION, client.getUsername());
         return client;
     }
 
 
+    @Override
+    public Optional<Client> getClientById(UUID id) {
+        return clientRepository.findById(id);
+    }
+
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Optional<Client> client = clientRepository.findByUsername(username);
@@ -96,6 +117,21 @@ public class ClientServiceImpl implements ClientService, UserDetailsService {
     }
 
 
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Optional<Client> client = clientRepository.findByUsername(user.getUsername());
+        if (client.isEmpty()) {
+            return user;
+        }
+        client.get().setPassword(newPassword);
+        clientRepository.save(client.get());
+        log.info("Rehashed password of user ID: {}", client.get().getId());
+        principalCache.removeUserFromCache(user.getUsername());
+        cacheInvalidationBus.publish(CLIENTS_REGION, user.getUsername());
+        return loadUserByUsername(user.getUsername());
+    }
+
+
     private boolean isValidPassword(String password) {
         // must include number, upper and lower case character and min length of 8
         String pattern = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$";
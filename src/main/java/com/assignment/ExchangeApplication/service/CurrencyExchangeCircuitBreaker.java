@@ -0,0 +1,156 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.EXCHANGE_UNAVAILABLE_ERROR;
+
+/**
+ * Circuit breaker around calls to the FX API. Calls run on a small dedicated executor (a bulkhead) and are
+ * abandoned after a hard timeout, so an FX outage can only ever occupy these threads and never the request
+ * threads. After a number of consecutive failures the circuit opens and calls fail fast; once the open period
+ * has passed a single trial call decides whether it closes again.
+ */
+@Component
+public class CurrencyExchangeCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CurrencyExchangeCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long timeoutMillis;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    public CurrencyExchangeCircuitBreaker(MeterRegistry meterRegistry,
+                                          @Value("${exchange.circuit.failure-threshold}") int failureThreshold,
+                                          @Value("${exchange.circuit.open-duration-ms}") long openDurationMillis,
+                                          @Value("${exchange.circuit.timeout-ms}") long timeoutMillis,
+                                          @Value("${exchange.circuit.threads}") int threads,
+                                          @Value("${exchange.circuit.queue-capacity}") int queueCapacity
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fx-client-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("exchange.circuit.state", state, current -> current.get().ordinal())
+                .description("FX API circuit state: 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquirePermission()) {
+            record("short_circuited");
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(call::get);
+        } catch (RejectedExecutionException e) {
+            record("rejected");
+            if (state.get() == State.HALF_OPEN) {
+                open();
+            }
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        }
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            record("timeout");
+            onFailure();
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        } catch (ExecutionException e) {
+            record("failure");
+            onFailure();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            record("interrupted");
+            // The trial call will never report back, so give the permit up rather than stay half open for good
+            if (state.get() == State.HALF_OPEN) {
+                open();
+            }
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        // Only the caller that moves the circuit to half open gets to make the trial call
+        return current == State.OPEN
+                && System.nanoTime() - openedAtNanos >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    private void onSuccess() {
+        record("success");
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("FX API circuit closed");
+        }
+    }
+
+    private void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        if (state.getAndSet(State.OPEN) != State.OPEN) {
+            log.warn("FX API circuit opened after {} consecutive failures", consecutiveFailures.get());
+        }
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("exchange.circuit.calls", "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
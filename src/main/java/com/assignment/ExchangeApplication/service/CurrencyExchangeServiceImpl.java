@@ -2,52 +2,174 @@ package com.assignment.ExchangeApplication.service;
 
 import com.assignment.ExchangeApplication.enums.CurrencyCode;
 import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
-import com.assignment.ExchangeApplication.model.CurrencyExchangeResponse;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
 import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.ResponseEntity;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
-import java.util.Map;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.assignment.ExchangeApplication.helpers.StatusMessages.EXCHANGE_UNAVAILABLE_ERROR;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
 
 @Service
 public class CurrencyExchangeServiceImpl implements CurrencyExchangeService {
-    private final RestTemplate restTemplate;
+    // All cross rates are derived from a single table fetched against this base
+    static final CurrencyCode BASE_CURRENCY = CurrencyCode.USD;
+    static final String CROSS_RATES_CACHE_KEY = "cross-rates:USD";
+
+    private final HedgedExchangeRateClient exchangeRateClient;
     private final Logger log = LoggerFactory.getLogger(CurrencyExchangeServiceImpl.class);
+    private final long maxStalenessSeconds;
+    private final long revalidateIntervalSeconds;
+    private final AtomicReference<FetchedExchangeRates> currentRates = new AtomicReference<>();
+    private final ConcurrentHashMap<CurrencyCode, InFlightLoad> inFlightLoads = new ConcurrentHashMap<>();
+    private final DistributionSummary callersPerLoad;
+    private final Counter staleRatesServed;
+    private final CurrencyExchangeCircuitBreaker circuitBreaker;
+    private final ExchangeRateSnapshotStore snapshotStore;
+    private final ExchangeRateHistoryStore historyStore;
+
+    public CurrencyExchangeServiceImpl(HedgedExchangeRateClient exchangeRateClient,
+                                       MeterRegistry meterRegistry,
+                                       CurrencyExchangeCircuitBreaker circuitBreaker,
+                                       ExchangeRateSnapshotStore snapshotStore,
+                                       ExchangeRateHistoryStore historyStore,
+                                       @Value("${exchange.rates.max-staleness-ms}") long maxStalenessMillis,
+                                       @Value("${exchange.rates.revalidate-interval-ms}") long revalidateIntervalMillis
+    ) {
+        this.exchangeRateClient = exchangeRateClient;
+        this.circuitBreaker = circuitBreaker;
+        this.snapshotStore = snapshotStore;
+        this.historyStore = historyStore;
+        this.maxStalenessSeconds = maxStalenessMillis / 1000;
+        this.revalidateIntervalSeconds = revalidateIntervalMillis / 1000;
+        this.staleRatesServed = Counter.builder("exchange.rates.stale.served")
+                .description("Requests served last known good exchange rates because the FX API was unavailable")
+                .register(meterRegistry);
+        this.callersPerLoad = DistributionSummary.builder("exchange.rates.load.callers")
+                .description("Callers served by a single upstream exchange rate load")
+                .register(meterRegistry);
+    }
 
-    public CurrencyExchangeServiceImpl(RestTemplateBuilder restTemplateBuilder, @Value("${exchange.api.base-url}") String baseUrl) {
-        this.restTemplate = restTemplateBuilder.rootUri(baseUrl).build();
+    // Start from the last persisted rates so conversions work before the FX API has answered
+    @PostConstruct
+    public void restoreSnapshot() {
+        snapshotStore.loadLatest(BASE_CURRENCY).ifPresent(restored -> {
+            historyStore.record(restored.table());
+            if (currentRates.compareAndSet(null, restored)) {
+                log.info("Restored exchange rates last updated at {} from snapshot {}",
+                        restored.table().getLastUpdateUnix(), restored.table().getSnapshotId());
+            }
+        });
     }
 
     @Override
-    @Retryable(maxAttempts = 5, backoff = @Backoff(delay = 5000))
-    @Cacheable(value = "exchangeRatesCache", key = "#currencyCode")
-    public Map<CurrencyCode, BigDecimal> getExchangeRates(CurrencyCode currencyCode) {
-        ResponseEntity<CurrencyExchangeResponse> response;
+    @Cacheable(value = "exchangeRatesCache", key = "'" + CROSS_RATES_CACHE_KEY + "'")
+    public ExchangeRateTable getExchangeRates() {
+        FetchedExchangeRates current = currentRates.get();
+        if (current != null && !isDue(current.table())) {
+            return current.table();
+        }
+        try {
+            return loadExchangeRates();
+        } catch (CurrencyExchangeException e) {
+            // Last known good rates keep transfers going through an FX outage, within the staleness budget
+            if (current != null && !isStale(current.table())) {
+                log.warn("Serving exchange rates last updated at {} while the FX API is unavailable", current.table().getLastUpdateUnix());
+                staleRatesServed.increment();
+                return current.table();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @CachePut(value = "exchangeRatesCache", key = "'" + CROSS_RATES_CACHE_KEY + "'")
+    public ExchangeRateTable refreshExchangeRates() {
+        return loadExchangeRates();
+    }
+
+    // Concurrent callers share the upstream request already in flight instead of issuing their own. Joining and
+    // removing the load both lock its map entry, so once it is removed no caller can still join and the count is final
+    private ExchangeRateTable loadExchangeRates() {
+        InFlightLoad load = new InFlightLoad();
+        InFlightLoad existing = inFlightLoads.compute(BASE_CURRENCY, (currency, inFlight) -> {
+            if (inFlight == null) {
+                return load;
+            }
+            inFlight.callers.incrementAndGet();
+            return inFlight;
+        });
+        if (existing != load) {
+            try {
+                return existing.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ExchangeRateTable table = fetchExchangeRates();
+            load.result.complete(table);
+            return table;
+        } catch (RuntimeException e) {
+            load.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(BASE_CURRENCY, load);
+            callersPerLoad.record(load.callers.get());
+        }
+    }
+
+    private ExchangeRateTable fetchExchangeRates() {
+        FetchedExchangeRates current = currentRates.get();
         try {
-            log.info("Retrieving exchange rates for {} currency", currencyCode);
-            response = restTemplate.getForEntity("/v6/latest/{currencyCode}", CurrencyExchangeResponse.class, currencyCode);
-            // Api on errors returns 200 status with a body but without rates
-            Map<CurrencyCode, BigDecimal> rates = response.getBody().getRates();
-            if (rates == null) {
-                log.error("Failed to retrieve exchange rates: rates are null");
-                throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+            log.info("Retrieving exchange rates for {} currency", BASE_CURRENCY);
+            FetchedExchangeRates fetched = circuitBreaker.execute(() -> exchangeRateClient.fetch(BASE_CURRENCY, current));
+            if (fetched == current) {
+                // The upstream has confirmed the rates but not yet published new ones; without moving the schedule
+                // every later call would find them due again and the staleness budget would keep running out
+                long nextCheckUnix = Instant.now().getEpochSecond() + revalidateIntervalSeconds;
+                fetched = new FetchedExchangeRates(current.table().withNextUpdateUnix(nextCheckUnix), current.provider(),
+                        current.entityTag(), current.lastModified());
+                currentRates.set(fetched);
+                log.info("Exchange rates for {} currency are not modified, checking again at {}", BASE_CURRENCY, nextCheckUnix);
+            } else {
+                log.info("Exchange rates for {} currency served by {} provider", BASE_CURRENCY, fetched.provider());
+                fetched = snapshotStore.save(fetched);
+                currentRates.set(fetched);
+                historyStore.record(fetched.table());
             }
-            return rates;
+            return fetched.table();
         } catch (Exception e) {
             log.error("Failed to retrieve exchange rates: {}", e.getMessage());
             throw new CurrencyExchangeException(RETRIEVE_EXCHANGE_RATE_ERROR);
         }
     }
+
+    private boolean isDue(ExchangeRateTable table) {
+        return Instant.now().getEpochSecond() >= table.getNextUpdateUnix();
+    }
+
+    private boolean isStale(ExchangeRateTable table) {
+        return Instant.now().getEpochSecond() > table.getNextUpdateUnix() + maxStalenessSeconds;
+    }
+
+    private static class InFlightLoad {
+        private final CompletableFuture<ExchangeRateTable> result = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger(1);
+    }
 }
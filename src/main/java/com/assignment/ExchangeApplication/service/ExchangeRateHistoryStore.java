@@ -0,0 +1,412 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.dto.HistoricalRate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.HISTORICAL_RATE_NOT_FOUND_ERROR;
+
+/**
+ * Append-only history of every rate table the service has seen, answering "what was the rate at time T".
+ * Tables are grouped into segments of a fixed number of consecutive tables. Within a segment the update times
+ * and each currency's column of rates are delta encoded as variable length integers, so unchanged rates cost a
+ * single byte. Rates are stored as fixed point with nine decimals, which is exact for the rates the FX API
+ * publishes. An as-of lookup is two binary searches (over segments, then within one) followed by decoding the
+ * two columns of the pair up to the matching table, which is bounded by the segment size.
+ * <p>
+ * Full segments are appended to {@code segments.bin} and never rewritten; the segment being filled lives in
+ * {@code open-segment.bin}, which is replaced atomically on every append.
+ */
+@Component
+public class ExchangeRateHistoryStore {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateHistoryStore.class);
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double RATE_SCALE = 1e9;
+    private static final int CODE_LENGTH = 3;
+    private static final String SEGMENTS_FILE = "segments.bin";
+    private static final String OPEN_SEGMENT_FILE = "open-segment.bin";
+
+    private final CurrencyCode baseCurrency;
+    private final int segmentSize;
+    private final Path segmentsFile;
+    private final Path openSegmentFile;
+    private final List<Segment> sealedSegments = new ArrayList<>();
+    private final List<long[]> openRows = new ArrayList<>();
+    private final List<Long> openTimestamps = new ArrayList<>();
+    // Sealed segments followed by the open one, replaced as a whole on every append so lookups need no lock
+    private volatile Segment[] segments = new Segment[0];
+
+    public ExchangeRateHistoryStore(@Value("${exchange.history.directory}") Path directory,
+                                    @Value("${exchange.history.segment-size}") int segmentSize
+    ) {
+        this.baseCurrency = CurrencyExchangeServiceImpl.BASE_CURRENCY;
+        this.segmentSize = segmentSize;
+        this.segmentsFile = directory.resolve(SEGMENTS_FILE);
+        this.openSegmentFile = directory.resolve(OPEN_SEGMENT_FILE);
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open exchange rate history in " + directory, e);
+        }
+        log.info("Loaded exchange rate history of {} tables from {}", size(), directory);
+    }
+
+    /**
+     * Appends the table unless it is not newer than the latest one recorded. Failures to write are logged, not
+     * thrown, as the history must never get in the way of serving rates.
+     */
+    public synchronized void record(ExchangeRateTable table) {
+        if (table.getBaseCurrency() != baseCurrency || table.getLastUpdateUnix() <= latestTimestamp()) {
+            return;
+        }
+        long[] row = new long[CurrencyCode.values().length];
+        for (CurrencyCode currencyCode : CurrencyCode.values()) {
+            row[currencyCode.ordinal()] = toFixedPoint(table.ratePerBase(currencyCode));
+        }
+        openRows.add(row);
+        openTimestamps.add(table.getLastUpdateUnix());
+        Segment open = Segment.encode(openTimestamps, openRows);
+        if (openRows.size() == segmentSize) {
+            try {
+                appendSealed(open);
+            } catch (IOException e) {
+                log.error("Failed to record exchange rates updated at {}: {}", table.getLastUpdateUnix(), e.getMessage());
+                openRows.removeLast();
+                openTimestamps.removeLast();
+                return;
+            }
+            sealedSegments.add(open);
+            openRows.clear();
+            openTimestamps.clear();
+            open = null;
+        }
+        try {
+            writeOpenSegment(open);
+        } catch (IOException e) {
+            // The open segment is rewritten in full on the next append, so it is kept in memory meanwhile
+            log.error("Failed to write open exchange rate history segment: {}", e.getMessage());
+        }
+        publishSegments(open);
+    }
+
+    /**
+     * @return the rate between the two currencies in the latest table updated at or before the given time
+     */
+    public HistoricalRate rateAsOf(CurrencyCode from, CurrencyCode to, Instant at) {
+        Segment[] current = segments;
+        long atUnix = at.getEpochSecond();
+        int segmentIndex = lastAtOrBefore(current, atUnix);
+        if (segmentIndex < 0) {
+            throw new CurrencyExchangeException(HISTORICAL_RATE_NOT_FOUND_ERROR);
+        }
+        Segment segment = current[segmentIndex];
+        int index = segment.indexAtOrBefore(atUnix);
+        double fromRate = segment.rateAt(from, index);
+        double toRate = segment.rateAt(to, index);
+        double rate = from == to ? 1.0 : toRate / fromRate;
+        if (Double.isNaN(rate) || Double.isInfinite(rate) || rate <= 0) {
+            throw new CurrencyExchangeException(HISTORICAL_RATE_NOT_FOUND_ERROR);
+        }
+        return new HistoricalRate(from, to, at, Instant.ofEpochSecond(segment.timestamps[index]),
+                ExchangeRateTable.toDecimalRate(rate));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.timestamps.length;
+        }
+        return size;
+    }
+
+    private static int lastAtOrBefore(Segment[] segments, long atUnix) {
+        int low = 0;
+        int high = segments.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (segments[middle].timestamps[0] <= atUnix) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private long latestTimestamp() {
+        if (!openTimestamps.isEmpty()) {
+            return openTimestamps.getLast();
+        }
+        return sealedSegments.isEmpty() ? Long.MIN_VALUE : sealedSegments.getLast().lastTimestamp();
+    }
+
+    private void publishSegments(Segment open) {
+        List<Segment> published = new ArrayList<>(sealedSegments);
+        if (open != null) {
+            published.add(open);
+        }
+        segments = published.toArray(Segment[]::new);
+    }
+
+    private void load() throws IOException {
+        if (Files.exists(segmentsFile)) {
+            ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(segmentsFile));
+            if (contents.hasRemaining() && contents.get() != FORMAT_VERSION) {
+                throw new IOException("Unsupported exchange rate history format in " + segmentsFile);
+            }
+            int validLength = contents.position();
+            while (contents.remaining() >= Integer.BYTES) {
+                int length = contents.getInt();
+                if (length > contents.remaining()) {
+                    break;
+                }
+                sealedSegments.add(Segment.decode(contents.slice(contents.position(), length)));
+                contents.position(contents.position() + length);
+                validLength = contents.position();
+            }
+            if (validLength < contents.limit()) {
+                // A crash while appending leaves a partial segment behind, which is dropped
+                log.warn("Truncating incomplete exchange rate history segment in {}", segmentsFile);
+                try (FileChannel channel = FileChannel.open(segmentsFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        }
+        if (Files.exists(openSegmentFile)) {
+            byte[] bytes = Files.readAllBytes(openSegmentFile);
+            if (bytes.length > 1 && bytes[0] == FORMAT_VERSION) {
+                Segment open = Segment.decode(ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice());
+                long lastSealed = latestTimestamp();
+                long[][] rows = open.decodeRows();
+                for (int i = 0; i < rows.length; i++) {
+                    // Rows sealed just before a crash are also still in the open segment
+                    if (open.timestamps[i] > lastSealed) {
+                        openTimestamps.add(open.timestamps[i]);
+                        openRows.add(rows[i]);
+                    }
+                }
+            }
+        }
+        publishSegments(openRows.isEmpty() ? null : Segment.encode(openTimestamps, openRows));
+    }
+
+    private void appendSealed(Segment segment) throws IOException {
+        byte[] encoded = segment.encoded;
+        try (FileChannel channel = FileChannel.open(segmentsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long sizeBefore = channel.size();
+            ByteBuffer block = ByteBuffer.allocate((sizeBefore == 0 ? 1 : 0) + Integer.BYTES + encoded.length);
+            if (sizeBefore == 0) {
+                block.put(FORMAT_VERSION);
+            }
+            block.putInt(encoded.length).put(encoded).flip();
+            try {
+                long position = sizeBefore;
+                while (block.hasRemaining()) {
+                    position += channel.write(block, position);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // A partial segment would sit in front of every later append, so the file goes back to its old end
+                try {
+                    channel.truncate(sizeBefore);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void writeOpenSegment(Segment open) throws IOException {
+        Path temporary = openSegmentFile.resolveSibling(OPEN_SEGMENT_FILE + ".tmp");
+        byte[] bytes;
+        if (open == null) {
+            bytes = new byte[0];
+        } else {
+            bytes = new byte[1 + open.encoded.length];
+            bytes[0] = FORMAT_VERSION;
+            System.arraycopy(open.encoded, 0, bytes, 1, open.encoded.length);
+        }
+        Files.write(temporary, bytes);
+        Files.move(temporary, openSegmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long toFixedPoint(double rate) {
+        return Double.isNaN(rate) ? 0 : Math.round(rate * RATE_SCALE);
+    }
+
+    private static double fromFixedPoint(long value) {
+        return value == 0 ? Double.NaN : value / RATE_SCALE;
+    }
+
+    /**
+     * Consecutive tables in columnar form. Update times are decoded once and kept for binary search, while the
+     * rate columns stay encoded and are decoded on demand. Columns are indexed by {@link CurrencyCode#ordinal()}
+     * in memory, but stored under their ISO code so history survives reordering of the enum.
+     */
+    private static final class Segment {
+        private final long[] timestamps;
+        private final byte[][] columns;
+        private final byte[] encoded;
+
+        private Segment(long[] timestamps, byte[][] columns, byte[] encoded) {
+            this.timestamps = timestamps;
+            this.columns = columns;
+            this.encoded = encoded;
+        }
+
+        private static Segment encode(List<Long> timestamps, List<long[]> rows) {
+            long[] times = timestamps.stream().mapToLong(Long::longValue).toArray();
+            CurrencyCode[] currencyCodes = CurrencyCode.values();
+            byte[][] columns = new byte[currencyCodes.length][];
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeVarLong(out, times.length);
+            long previous = 0;
+            for (long time : times) {
+                writeVarLong(out, zigZag(time - previous));
+                previous = time;
+            }
+            int columnCount = 0;
+            for (CurrencyCode currencyCode : currencyCodes) {
+                int ordinal = currencyCode.ordinal();
+                if (rows.stream().allMatch(row -> row[ordinal] == 0)) {
+                    continue;
+                }
+                ByteArrayOutputStream column = new ByteArrayOutputStream();
+                long previousValue = 0;
+                for (long[] row : rows) {
+                    writeVarLong(column, zigZag(row[ordinal] - previousValue));
+                    previousValue = row[ordinal];
+                }
+                columns[ordinal] = column.toByteArray();
+                columnCount++;
+            }
+            writeVarLong(out, columnCount);
+            for (CurrencyCode currencyCode : currencyCodes) {
+                byte[] column = columns[currencyCode.ordinal()];
+                if (column != null) {
+                    out.writeBytes(currencyCode.name().getBytes(StandardCharsets.US_ASCII));
+                    writeVarLong(out, column.length);
+                    out.writeBytes(column);
+                }
+            }
+            return new Segment(times, columns, out.toByteArray());
+        }
+
+        private static Segment decode(ByteBuffer buffer) {
+            byte[] encoded = new byte[buffer.remaining()];
+            buffer.duplicate().get(encoded);
+            long[] timestamps = new long[(int) readVarLong(buffer)];
+            long previous = 0;
+            for (int i = 0; i < timestamps.length; i++) {
+                previous += unZigZag(readVarLong(buffer));
+                timestamps[i] = previous;
+            }
+            byte[][] columns = new byte[CurrencyCode.values().length][];
+            int columnCount = (int) readVarLong(buffer);
+            for (int i = 0; i < columnCount; i++) {
+                byte[] code = new byte[CODE_LENGTH];
+                buffer.get(code);
+                byte[] column = new byte[(int) readVarLong(buffer)];
+                buffer.get(column);
+                try {
+                    columns[CurrencyCode.valueOf(new String(code, StandardCharsets.US_ASCII)).ordinal()] = column;
+                } catch (IllegalArgumentException e) {
+                    // Currency no longer supported, its history is skipped
+                }
+            }
+            return new Segment(timestamps, columns, encoded);
+        }
+
+        private long lastTimestamp() {
+            return timestamps[timestamps.length - 1];
+        }
+
+        private int indexAtOrBefore(long atUnix) {
+            int index = Arrays.binarySearch(timestamps, atUnix);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        private double rateAt(CurrencyCode currencyCode, int index) {
+            byte[] column = columns[currencyCode.ordinal()];
+            if (column == null) {
+                return Double.NaN;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(column);
+            long value = 0;
+            for (int i = 0; i <= index; i++) {
+                value += unZigZag(readVarLong(buffer));
+            }
+            return fromFixedPoint(value);
+        }
+
+        private long[][] decodeRows() {
+            long[][] rows = new long[timestamps.length][CurrencyCode.values().length];
+            for (int ordinal = 0; ordinal < columns.length; ordinal++) {
+                if (columns[ordinal] == null) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(columns[ordinal]);
+                long value = 0;
+                for (long[] row : rows) {
+                    value += unZigZag(readVarLong(buffer));
+                    row[ordinal] = value;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reloads exchange rates in the background shortly after the upstream publishes new ones, as announced by
+ * {@code time_next_update_unix}, so request threads are served from the cache and never wait for the FX API.
+ * The delay is capped below the cache time to live, keeping the cached table warm even when the upstream
+ * schedule is unknown. Failed refreshes are retried with exponential backoff.
+ */
+@Component
+public class ExchangeRateRefresher {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateRefresher.class);
+
+    private final CurrencyExchangeService currencyExchangeService;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final Duration failureDelay;
+    private final Duration gracePeriod;
+    private int consecutiveFailures;
+
+    public ExchangeRateRefresher(CurrencyExchangeService currencyExchangeService,
+                                 TaskScheduler taskScheduler,
+                                 @Value("${exchange.refresh.enabled:true}") boolean enabled,
+                                 @Value("${exchange.refresh.min-delay-ms}") long minDelayMillis,
+                                 @Value("${exchange.refresh.failure-delay-ms}") long failureDelayMillis,
+                                 @Value("${exchange.refresh.grace-period-ms}") long gracePeriodMillis,
+                                 @Value("${spring.cache.redis.time-to-live}") long cacheTimeToLiveMillis
+    ) {
+        this.currencyExchangeService = currencyExchangeService;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.minDelay = Duration.ofMillis(minDelayMillis);
+        this.maxDelay = Duration.ofMillis(Math.max(minDelayMillis, cacheTimeToLiveMillis * 9 / 10));
+        this.failureDelay = Duration.ofMillis(failureDelayMillis);
+        this.gracePeriod = Duration.ofMillis(gracePeriodMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            taskScheduler.schedule(this::refresh, Instant.now());
+        }
+    }
+
+    public void refresh() {
+        Duration delay;
+        try {
+            ExchangeRateTable table = currencyExchangeService.refreshExchangeRates();
+            consecutiveFailures = 0;
+            delay = delayUntilNextUpdate(table, Instant.now());
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            delay = failureDelay.multipliedBy(1L << Math.min(consecutiveFailures - 1, 16));
+            if (delay.compareTo(maxDelay) > 0) {
+                delay = maxDelay;
+            }
+            log.warn("Exchange rate refresh failed {} times in a row, retrying in {}", consecutiveFailures, delay);
+        }
+        log.info("Next exchange rate refresh in {}", delay);
+        taskScheduler.schedule(this::refresh, Instant.now().plus(delay));
+    }
+
+    public Duration delayUntilNextUpdate(ExchangeRateTable table, Instant now) {
+        Duration delay = Duration.between(now, Instant.ofEpochSecond(table.getNextUpdateUnix()).plus(gracePeriod));
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+}
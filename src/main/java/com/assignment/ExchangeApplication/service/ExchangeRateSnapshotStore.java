@@ -0,0 +1,70 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.configuration.ExchangeRateTableRedisSerializer;
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.ExchangeRateSnapshot;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
+import com.assignment.ExchangeApplication.repository.ExchangeRateSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Persists every newly fetched rate table as a snapshot and restores the latest one at startup. The database is
+ * not on the critical path: a failed write leaves the table without a snapshot id and a failed read means a cold
+ * start, both of which are logged and otherwise ignored.
+ */
+@Component
+public class ExchangeRateSnapshotStore {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateSnapshotStore.class);
+
+    private final ExchangeRateSnapshotRepository snapshotRepository;
+    private final ExchangeRateTableRedisSerializer serializer = new ExchangeRateTableRedisSerializer();
+
+    public ExchangeRateSnapshotStore(ExchangeRateSnapshotRepository snapshotRepository) {
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    /**
+     * @return the given rates, their table stamped with the id of the new snapshot when it could be written
+     */
+    public FetchedExchangeRates save(FetchedExchangeRates fetched) {
+        ExchangeRateTable table = fetched.table();
+        try {
+            ExchangeRateSnapshot snapshot = snapshotRepository.save(new ExchangeRateSnapshot(null, table.getBaseCurrency(),
+                    table.getLastUpdateUnix(), fetched.provider(), fetched.entityTag(), fetched.lastModified(),
+                    LocalDateTime.now(ZoneOffset.UTC), serializer.serialize(table)));
+            log.info("Saved exchange rate snapshot {}", snapshot.getId());
+            return new FetchedExchangeRates(table.withSnapshotId(snapshot.getId()), fetched.provider(),
+                    fetched.entityTag(), fetched.lastModified());
+        } catch (RuntimeException e) {
+            log.error("Failed to save exchange rate snapshot: {}", e.getMessage());
+            return fetched;
+        }
+    }
+
+    public Optional<FetchedExchangeRates> loadLatest(CurrencyCode baseCurrency) {
+        try {
+            return snapshotRepository.findFirstByBaseCurrencyOrderByCreatedAtDesc(baseCurrency)
+                    .flatMap(this::toFetchedExchangeRates);
+        } catch (RuntimeException e) {
+            log.error("Failed to load exchange rate snapshot: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<FetchedExchangeRates> toFetchedExchangeRates(ExchangeRateSnapshot snapshot) {
+        ExchangeRateTable table = serializer.deserialize(snapshot.getRates());
+        if (table == null) {
+            log.warn("Ignoring exchange rate snapshot {} stored in an unsupported format", snapshot.getId());
+            return Optional.empty();
+        }
+        return Optional.of(new FetchedExchangeRates(table.withSnapshotId(snapshot.getId()), snapshot.getProvider(),
+                snapshot.getEntityTag(), snapshot.getLastModified()));
+    }
+}
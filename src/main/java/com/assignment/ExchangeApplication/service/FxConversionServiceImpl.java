@@ -0,0 +1,93 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.dto.ConversionItem;
+import com.assignment.ExchangeApplication.model.dto.ConversionResult;
+import com.assignment.ExchangeApplication.service.interfaces.FxConversionService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.INVALID_CONVERSION_ITEM_ERROR;
+
+/**
+ * Converts items one at a time as they are read from the request and writes each result straight to the response,
+ * so memory use does not grow with the number of items. All items are converted against the single rate table
+ * passed in, and each currency pair's rate is only turned into a {@link BigDecimal} once per request. The rates are
+ * kept in one row per source currency, allocated when an item first converts from it, so a request only pays for
+ * the currencies it uses.
+ */
+@Service
+public class FxConversionServiceImpl implements FxConversionService {
+    private static final Logger log = LoggerFactory.getLogger(FxConversionServiceImpl.class);
+    private static final CurrencyCode[] CURRENCY_CODES = CurrencyCode.values();
+
+    private final ObjectReader itemReader;
+    private final ObjectWriter resultWriter;
+
+    public FxConversionServiceImpl(ObjectMapper objectMapper) {
+        // An unknown currency code fails its own item only, instead of the rest of the stream
+        this.itemReader = objectMapper.readerFor(ConversionItem.class)
+                .with(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL);
+        this.resultWriter = objectMapper.writerFor(ConversionResult.class);
+    }
+
+    @Override
+    public void convert(ExchangeRateTable exchangeRates, InputStream items, OutputStream results) throws IOException {
+        BigDecimal[][] pairRates = new BigDecimal[CURRENCY_CODES.length][];
+        int converted = 0;
+        try (MappingIterator<ConversionItem> itemIterator = itemReader.readValues(items);
+             SequenceWriter resultSequence = resultWriter.writeValues(results).init(true)) {
+            while (itemIterator.hasNextValue()) {
+                ConversionItem item;
+                try {
+                    item = itemIterator.nextValue();
+                } catch (JsonMappingException e) {
+                    // A value of the wrong type fails its own item, the iterator skips to the next one
+                    resultSequence.write(new ConversionResult(null, null, null, null, null, INVALID_CONVERSION_ITEM_ERROR));
+                    continue;
+                }
+                resultSequence.write(convert(exchangeRates, pairRates, item));
+                converted++;
+            }
+        }
+        log.info("Converted {} items against exchange rates last updated at {}", converted, exchangeRates.getLastUpdateUnix());
+    }
+
+    private ConversionResult convert(ExchangeRateTable exchangeRates, BigDecimal[][] pairRates, ConversionItem item) {
+        if (item == null || item.getAmount() == null || item.getFrom() == null || item.getTo() == null) {
+            return item == null
+                    ? new ConversionResult(null, null, null, null, null, INVALID_CONVERSION_ITEM_ERROR)
+                    : new ConversionResult(item.getAmount(), item.getFrom(), item.getTo(), null, null, INVALID_CONVERSION_ITEM_ERROR);
+        }
+        try {
+            BigDecimal[] fromRates = pairRates[item.getFrom().ordinal()];
+            if (fromRates == null) {
+                fromRates = new BigDecimal[CURRENCY_CODES.length];
+                pairRates[item.getFrom().ordinal()] = fromRates;
+            }
+            BigDecimal rate = fromRates[item.getTo().ordinal()];
+            if (rate == null) {
+                rate = exchangeRates.getRate(item.getFrom(), item.getTo());
+                fromRates[item.getTo().ordinal()] = rate;
+            }
+            return new ConversionResult(item.getAmount(), item.getFrom(), item.getTo(), rate, item.getAmount().multiply(rate), null);
+        } catch (CurrencyExchangeException e) {
+            return new ConversionResult(item.getAmount(), item.getFrom(), item.getTo(), null, null, e.getMessage());
+        }
+    }
+}
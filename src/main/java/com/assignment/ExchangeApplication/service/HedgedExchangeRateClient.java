@@ -0,0 +1,200 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
+import com.assignment.ExchangeApplication.service.interfaces.ExchangeRateProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.EXCHANGE_UNAVAILABLE_ERROR;
+
+/**
+ * Fetches rates from the configured providers with hedging: the primary is asked first and, if it has not
+ * answered within its recent p95 latency, the next provider is asked as well. The first answer wins and the
+ * remaining requests are cancelled. A failing provider hands over to the next one straight away. The primary's
+ * time is recorded however its request ends, so a primary that keeps failing late raises the hedge delay instead of
+ * leaving it to its fast answers. A primary cancelled because the hedge won is only known to have taken longer than
+ * the delay it was hedged after, so that delay is recorded rather than the time until the cancellation, which would
+ * add the secondary's latency on every hedge and push the delay up towards the read timeout. The current delay is
+ * published as {@code exchange.hedge.delay}.
+ */
+@Component
+public class HedgedExchangeRateClient {
+    private static final Logger log = LoggerFactory.getLogger(HedgedExchangeRateClient.class);
+
+    private final List<ExchangeRateProvider> providers;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final LatencyWindow primaryLatency = new LatencyWindow(128);
+    private final long initialHedgeDelayMillis;
+    private final long minHedgeDelayMillis;
+
+    public HedgedExchangeRateClient(List<ExchangeRateProvider> providers,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${exchange.hedge.initial-delay-ms}") long initialHedgeDelayMillis,
+                                    @Value("${exchange.hedge.min-delay-ms}") long minHedgeDelayMillis
+    ) {
+        if (providers.isEmpty()) {
+            throw new IllegalStateException("At least one exchange rate provider must be configured");
+        }
+        this.providers = List.copyOf(providers);
+        this.meterRegistry = meterRegistry;
+        this.initialHedgeDelayMillis = initialHedgeDelayMillis;
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.providers.size() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "fx-provider-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("exchange.hedge.delay", this, HedgedExchangeRateClient::hedgeDelayMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        log.info("Exchange rate providers in hedging order: {}", this.providers.stream().map(ExchangeRateProvider::getName).toList());
+    }
+
+    public FetchedExchangeRates fetch(CurrencyCode baseCurrency, FetchedExchangeRates previous) {
+        HedgedFetch hedgedFetch = new HedgedFetch(baseCurrency, previous, hedgeDelayMillis());
+        try {
+            hedgedFetch.startNext();
+            while (hedgedFetch.hasMoreProviders()) {
+                try {
+                    return hedgedFetch.result.get(hedgedFetch.hedgeDelayMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    meterRegistry.counter("exchange.provider.hedges").increment();
+                    hedgedFetch.startNext();
+                }
+            }
+            return hedgedFetch.result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        } finally {
+            hedgedFetch.cancelOutstanding();
+        }
+    }
+
+    private long hedgeDelayMillis() {
+        long p95 = primaryLatency.percentile(0.95);
+        return p95 < 0 ? initialHedgeDelayMillis : Math.max(minHedgeDelayMillis, p95);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private class HedgedFetch {
+        private final CurrencyCode baseCurrency;
+        private final FetchedExchangeRates previous;
+        private final long hedgeDelayMillis;
+        private final CompletableFuture<FetchedExchangeRates> result = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger nextProvider = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private HedgedFetch(CurrencyCode baseCurrency, FetchedExchangeRates previous, long hedgeDelayMillis) {
+            this.baseCurrency = baseCurrency;
+            this.previous = previous;
+            this.hedgeDelayMillis = hedgeDelayMillis;
+        }
+
+        private boolean hasMoreProviders() {
+            return nextProvider.get() < providers.size();
+        }
+
+        private void startNext() {
+            int index = nextProvider.getAndIncrement();
+            if (index < providers.size() && !result.isDone()) {
+                attempts.add(executor.submit(() -> attempt(index)));
+            }
+        }
+
+        private void attempt(int index) {
+            ExchangeRateProvider provider = providers.get(index);
+            long start = System.nanoTime();
+            try {
+                FetchedExchangeRates fetched = provider.fetch(baseCurrency, previous);
+                long elapsed = System.nanoTime() - start;
+                recordPrimaryLatency(index, elapsed);
+                Timer.builder("exchange.provider.latency").tag("provider", provider.getName())
+                        .register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+                if (result.complete(fetched)) {
+                    meterRegistry.counter("exchange.provider.wins", "provider", provider.getName()).increment();
+                }
+            } catch (RuntimeException e) {
+                long elapsed = System.nanoTime() - start;
+                if (result.isDone()) {
+                    // Cancelled after another provider won: censored at the delay it had reached when hedged
+                    recordPrimaryLatency(index, Math.min(elapsed, TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis)));
+                    return;
+                }
+                recordPrimaryLatency(index, elapsed);
+                log.warn("Exchange rate provider {} failed: {}", provider.getName(), e.getMessage());
+                meterRegistry.counter("exchange.provider.failures", "provider", provider.getName()).increment();
+                if (failures.incrementAndGet() == providers.size()) {
+                    result.completeExceptionally(e);
+                } else {
+                    startNext();
+                }
+            }
+        }
+
+        private void recordPrimaryLatency(int index, long elapsedNanos) {
+            if (index == 0) {
+                primaryLatency.record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            }
+        }
+
+        private void cancelOutstanding() {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    // Recent latencies of the primary provider, small enough to sort on every lookup
+    private static class LatencyWindow {
+        private final long[] samples;
+        private int size;
+        private int next;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        private synchronized long percentile(double percentile) {
+            if (size == 0) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * size) - 1];
+        }
+    }
+}
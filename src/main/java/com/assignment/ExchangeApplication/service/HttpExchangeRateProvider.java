@@ -0,0 +1,77 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.CurrencyExchangeResponse;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
+import com.assignment.ExchangeApplication.service.interfaces.ExchangeRateProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.EXCHANGE_UNAVAILABLE_ERROR;
+
+/**
+ * Provider for APIs following the open.er-api.com {@code /v6/latest/{currency}} format, sent over a shared,
+ * connection pooling {@link HttpClient}.
+ */
+public class HttpExchangeRateProvider implements ExchangeRateProvider, Ordered {
+    private final String name;
+    private final RestTemplate restTemplate;
+    private final int order;
+
+    public HttpExchangeRateProvider(String name, RestTemplateBuilder restTemplateBuilder, HttpClient httpClient,
+                                    String baseUrl, Duration timeout, int order) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.name = name;
+        this.restTemplate = restTemplateBuilder.rootUri(baseUrl).requestFactory(() -> requestFactory).build();
+        this.order = order;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public FetchedExchangeRates fetch(CurrencyCode baseCurrency, FetchedExchangeRates previous) {
+        boolean conditional = previous != null && name.equals(previous.provider());
+        HttpHeaders headers = new HttpHeaders();
+        if (conditional && previous.entityTag() != null) {
+            headers.setIfNoneMatch(previous.entityTag());
+        }
+        if (conditional && previous.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+        }
+        ResponseEntity<CurrencyExchangeResponse> response = restTemplate.exchange("/v6/latest/{currencyCode}",
+                HttpMethod.GET, new HttpEntity<>(headers), CurrencyExchangeResponse.class, baseCurrency);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && conditional) {
+            return previous;
+        }
+        // Api on errors returns 200 status with a body but without rates
+        CurrencyExchangeResponse body = response.getBody();
+        double[] rates = body != null ? body.getRates() : null;
+        if (rates == null) {
+            throw new CurrencyExchangeException(EXCHANGE_UNAVAILABLE_ERROR);
+        }
+        ExchangeRateTable table = ExchangeRateTable.of(baseCurrency, rates, body.getTimeLastUpdateUnix(), body.getTimeNextUpdateUnix());
+        return new FetchedExchangeRates(table, name, response.getHeaders().getETag(),
+                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+    }
+}
@@ -4,36 +4,45 @@ import com.assignment.ExchangeApplication.enums.CurrencyCode;
 import com.assignment.ExchangeApplication.enums.TransactionOperation;
 import com.assignment.ExchangeApplication.enums.TransferStatus;
 import com.assignment.ExchangeApplication.enums.TransferType;
+import com.assignment.ExchangeApplication.exceptions.AccountLockTimeoutException;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
 import com.assignment.ExchangeApplication.exceptions.FailedAccountUpdateException;
 import com.assignment.ExchangeApplication.exceptions.NegativeAmountException;
 import com.assignment.ExchangeApplication.exceptions.PermissionDeniedException;
 import com.assignment.ExchangeApplication.model.Account;
 import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
 import com.assignment.ExchangeApplication.model.Transaction;
+import com.assignment.ExchangeApplication.model.dto.AccountBalance;
 import com.assignment.ExchangeApplication.model.dto.AccountResponseDto;
+import com.assignment.ExchangeApplication.model.dto.BatchTransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransactionRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferQuote;
+import com.assignment.ExchangeApplication.model.dto.TransferQuoteRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferResult;
 import com.assignment.ExchangeApplication.repository.TransactionRepository;
+import com.assignment.ExchangeApplication.service.AccountLockManager.AccountLock;
 import com.assignment.ExchangeApplication.service.interfaces.AccountService;
 import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
 import com.assignment.ExchangeApplication.service.interfaces.TransactionService;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Stream;
 
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.*;
 
@@ -46,101 +55,152 @@ public class TransactionServiceImpl implements TransactionService {
     private final AccountService accountService;
     private final CurrencyExchangeService currencyExchangeService;
     private final TransactionRepository transactionRepository;
+    private final AccountLockManager accountLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferQuoteStore transferQuoteStore;
 
     public TransactionServiceImpl(AccountService accountService,
                                   CurrencyExchangeService currencyExchangeService,
-                                  TransactionRepository transactionRepository
+                                  TransactionRepository transactionRepository,
+                                  AccountLockManager accountLockManager,
+                                  TransactionTemplate transactionTemplate,
+                                  TransferQuoteStore transferQuoteStore
     ) {
         this.accountService = accountService;
         this.currencyExchangeService = currencyExchangeService;
         this.transactionRepository = transactionRepository;
+        this.accountLockManager = accountLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.transferQuoteStore = transferQuoteStore;
     }
 
     @Override
-    @Transactional
     public AccountResponseDto depositAccount(Authentication authentication, TransactionRequest request) {
         log.info("Initiating deposit request for IBAN: {}", request.getAccountIban());
-        Account account;
-        try {
-            account = accountService.getAccountByIban(request.getAccountIban());
-        }
-        catch (NoSuchElementException e) {
-            log.warn("Account not found for IBAN: {}", request.getAccountIban());
-            throw new EntityNotFoundException(ACCOUNT_NOT_FOUND_ERROR);
-        }
-
-        if (!doesAccountBelongsToRequester(authentication, account)){
-            log.warn("Unauthorized deposit attempt on account IBAN: {}",
-                    request.getAccountIban());
-            throw new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR);
-        }
+        // Lock before the transaction begins, so waiting for the stripe never holds a pooled connection
+        try (AccountLock ignored = accountLockManager.lock(request.getAccountIban())) {
+            return transactionTemplate.execute(status -> {
+                Account account;
+                try {
+                    account = accountService.getAccountByIban(request.getAccountIban());
+                }
+                catch (NoSuchElementException e) {
+                    log.warn("Account not found for IBAN: {}", request.getAccountIban());
+                    throw new EntityNotFoundException(ACCOUNT_NOT_FOUND_ERROR);
+                }
+
+                if (!doesAccountBelongsToRequester(authentication, account)){
+                    log.warn("Unauthorized deposit attempt on account IBAN: {}",
+                            request.getAccountIban());
+                    throw new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR);
+                }
                 BigDecimal amountToDeposit = request.getAmount();
-        BigDecimal currentAccountBalance = account.getBalance();
-        BigDecimal newAccountBalance = currentAccountBalance.add(amountToDeposit);
-
-        account.setBalance(newAccountBalance);
-        accountService.updateAccount(account);
-        log.debug("Account balance updated for IBAN: {}", request.getAccountIban());
-
-        Transaction transaction = new Transaction();
-        transaction.setDestinationAccount(account);
-        transaction.setDestinationAmountCredited(amountToDeposit);
-        transaction.setSourceAmountDebited(BigDecimal.ZERO);
-        transaction.setDestinationCurrencyCode(account.getCurrency());
-        transaction.setTransactionOperation(TransactionOperation.DEPOSIT);
-        transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
-        transactionRepository.save(transaction);
-
-        log.info("Transaction record created for deposit to IBAN: {}", request.getAccountIban());
-
-        return new AccountResponseDto(account);
+                if (!accountService.creditAccount(account.getId(), amountToDeposit)) {
+                    log.error("Failed to credit account IBAN: {}", request.getAccountIban());
+                    throw new FailedAccountUpdateException(ACCOUNT_NOT_FOUND_ERROR);
+                }
+                BigDecimal newAccountBalance = account.getBalance().add(amountToDeposit);
+                log.debug("Account balance updated for IBAN: {}", request.getAccountIban());
+
+                Transaction transaction = new Transaction();
+                transaction.setDestinationAccount(account);
+                transaction.setDestinationAmountCredited(amountToDeposit);
+                transaction.setSourceAmountDebited(BigDecimal.ZERO);
+                transaction.setDestinationCurrencyCode(account.getCurrency());
+                transaction.setTransactionOperation(TransactionOperation.DEPOSIT);
+                transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
+                transactionRepository.save(transaction);
+
+                log.info("Transaction record created for deposit to IBAN: {}", request.getAccountIban());
+
+                return new AccountResponseDto(account, newAccountBalance);
+            });
+        }
     }
 
     @Override
-    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${account.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${account.retry.delay-ms}",
+                    maxDelayExpression = "${account.retry.max-delay-ms}", multiplier = 2, random = true),
+            listeners = "accountConflictRetryListener",
+            label = "withdraw")
     public AccountResponseDto withdrawAccount(Authentication authentication, TransactionRequest request) {
         log.info("Initiating withdrawal request for IBAN: {}", request.getAccountIban());
 
-        Account account;
-        try {
-            account = accountService.getAccountByIban(request.getAccountIban());
-        }
-        catch (NoSuchElementException e) {
-            log.warn("Account not found for IBAN: {}", request.getAccountIban());
-            throw new EntityNotFoundException(ACCOUNT_NOT_FOUND_ERROR);
+        // Lock before the transaction begins, so waiting for the stripe never holds a pooled connection
+        try (AccountLock ignored = accountLockManager.lock(request.getAccountIban())) {
+            return transactionTemplate.execute(status -> {
+                Account account;
+                try {
+                    account = accountService.getAccountByIban(request.getAccountIban());
+                }
+                catch (NoSuchElementException e) {
+                    log.warn("Account not found for IBAN: {}", request.getAccountIban());
+                    throw new EntityNotFoundException(ACCOUNT_NOT_FOUND_ERROR);
+                }
+
+                if (!doesAccountBelongsToRequester(authentication, account)){
+                    log.warn("Unauthorized withdrawal attempt on account IBAN: {}",
+                            request.getAccountIban());
+                    throw new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR);
+                }
+                BigDecimal amountToWithdraw = request.getAmount();
+                if (!accountService.debitAccount(account, amountToWithdraw)) {
+                    throw new NegativeAmountException(INSUFFICIENT_BALANCE_ERROR);
+                }
+                BigDecimal newAccountBalance = account.getBalance().subtract(amountToWithdraw);
+                log.debug("Account balance updated for withdrawal. IBAN: {}", request.getAccountIban());
+
+                Transaction transaction = new Transaction();
+                transaction.setSourceAccount(account);
+                transaction.setSourceAmountDebited(amountToWithdraw);
+                transaction.setDestinationAmountCredited(BigDecimal.ZERO);
+                transaction.setSourceCurrencyCode(account.getCurrency());
+                transaction.setTransactionOperation(TransactionOperation.WITHDRAWAL);
+                transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
+                transactionRepository.save(transaction);
+
+                log.info("Transaction record created for withdrawal from IBAN: {}", request.getAccountIban());
+
+                return new AccountResponseDto(account, newAccountBalance);
+            });
         }
+    }
 
-        if (!doesAccountBelongsToRequester(authentication, account)){
-            log.warn("Unauthorized withdrawal attempt on account IBAN: {}",
-                    request.getAccountIban());
-            throw new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR);
+    @Override
+    public TransferQuote quoteTransfer(Authentication authentication, TransferQuoteRequest quoteRequest) {
+        Account sourceAccount = getAccount(quoteRequest.getSourceAccountNumber());
+        if (sourceAccount == null) {
+            log.warn("Source account not found for IBAN: {}", quoteRequest.getSourceAccountNumber());
+            throw new EntityNotFoundException(SOURCE_ACCOUNT_NOT_FOUND_ERROR);
         }
-        BigDecimal amountToWithdraw = request.getAmount();
-        BigDecimal currentAccountBalance = account.getBalance();
-        BigDecimal newAccountBalance = currentAccountBalance.subtract(amountToWithdraw);
-        if(newAccountBalance.compareTo(BigDecimal.ZERO) < 0) {
-            throw new NegativeAmountException(INSUFFICIENT_BALANCE_ERROR);
+        if (!doesAccountBelongsToRequester(authentication, sourceAccount)) {
+            log.warn("Unauthorized quote attempt on account ID: {} by user: {}", sourceAccount.getId(), authentication.getName());
+            throw new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR);
         }
-        account.setBalance(newAccountBalance);
-        accountService.updateAccount(account);
-        log.debug("Account balance updated for withdrawal. IBAN: {}", request.getAccountIban());
 
-        Transaction transaction = new Transaction();
-        transaction.setSourceAccount(account);
-        transaction.setSourceAmountDebited(amountToWithdraw);
-        transaction.setDestinationAmountCredited(BigDecimal.ZERO);
-        transaction.setSourceCurrencyCode(account.getCurrency());
-        transaction.setTransactionOperation(TransactionOperation.WITHDRAWAL);
-        transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
-        transactionRepository.save(transaction);
-
-        log.info("Transaction record created for withdrawal from IBAN: {}", request.getAccountIban());
-
-        return new AccountResponseDto(account);
+        ExchangeRateTable exchangeRates = getExchangeRates(sourceAccount.getCurrency(), quoteRequest.getDestinationCurrency());
+        BigDecimal exchangeRate = getSourceCurrencyExchangeRate(exchangeRates, sourceAccount.getCurrency(), quoteRequest.getDestinationCurrency());
+        TransferQuote quote = new TransferQuote(UUID.randomUUID(), sourceAccount.getIban(), sourceAccount.getCurrency(),
+                quoteRequest.getDestinationCurrency(), quoteRequest.getAmount(), exchangeRate,
+                quoteRequest.getAmount().multiply(exchangeRate), transferQuoteStore.nextExpiry(),
+                exchangeRates == null ? null : exchangeRates.getSnapshotId());
+        transferQuoteStore.put(quote);
+        log.info("Issued quote {} for {} {} from {}", quote.getQuoteId(), quote.getAmount(),
+                quote.getDestinationCurrency(), sourceAccount.getIban());
+        return quote;
     }
 
+    // Not @Transactional on purpose: account lookups, validation and the FX call run without holding a connection,
+    // only commitTransfer opens a (short) database transaction
     @Override
-    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${account.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${account.retry.delay-ms}",
+                    maxDelayExpression = "${account.retry.max-delay-ms}", multiplier = 2, random = true),
+            listeners = "accountConflictRetryListener",
+            label = "transfer")
     public TransferResult transferBetweenAccounts (Authentication authentication, TransferRequest transferRequest){
         String sourceIban = transferRequest.getSourceAccountNumber();
         String destinationIban = transferRequest.getDestinationAccountNumber();
@@ -148,33 +208,49 @@ public class TransactionServiceImpl implements TransactionService {
         log.info("Initiating transfer from {} to {}", sourceIban, destinationIban);
 
         Account sourceAccount = getAccount(sourceIban);
-        if (sourceAccount == null) {
-            log.warn("Source account not found for IBAN: {}", sourceIban);
-            return generateFailedTransfer(SOURCE_ACCOUNT_NOT_FOUND_ERROR);
-        }
-        if (!doesAccountBelongsToRequester(authentication, sourceAccount)) {
-            log.warn("Unauthorized access attempt on account ID: {} by user: {}", sourceAccount.getId(), authentication.getName());
-            return generateFailedTransfer(UNAUTHORIZED_ACCOUNT_ERROR);
+        String sourceValidationError = validateSourceAccount(authentication, sourceAccount, transferRequest);
+        if (sourceValidationError != null) {
+            return generateFailedTransfer(sourceValidationError);
         }
 
         Account destinationAccount = getAccount(destinationIban);
-        if (destinationAccount == null) {
-            log.warn("Destination account not found for IBAN: {}", destinationIban);
-            return generateFailedTransfer(DESTINATION_ACCOUNT_NOT_FOUND_ERROR);
+        String destinationValidationError = validateDestinationAccount(sourceAccount, destinationAccount, transferRequest);
+        if (destinationValidationError != null) {
+            return generateFailedTransfer(destinationValidationError);
         }
 
-        if (sourceAccount.getId().equals(destinationAccount.getId())) {
-            log.warn("Transfer attempt between identical accounts: {}", sourceAccount.getId());
-            return generateFailedTransfer(IDENTICAL_SOURCE_AND_DESTINATION_ACCOUNT_ERROR);
+        BigDecimal exchangeRate;
+        UUID rateSnapshotId;
+        if (transferRequest.getQuoteId() != null) {
+            TransferQuote quote = transferQuoteStore.get(transferRequest.getQuoteId());
+            String quoteValidationError = validateQuote(quote, sourceAccount, transferRequest);
+            if (quoteValidationError != null) {
+                return generateFailedTransfer(quoteValidationError);
+            }
+            exchangeRate = quote.getExchangeRate();
+            rateSnapshotId = quote.getRateSnapshotId();
+        } else {
+            ExchangeRateTable exchangeRates = getExchangeRates(sourceAccount.getCurrency(), transferRequest.getDestinationCurrency());
+            exchangeRate = getSourceCurrencyExchangeRate(exchangeRates, sourceAccount.getCurrency(), transferRequest.getDestinationCurrency());
+            rateSnapshotId = exchangeRates == null ? null : exchangeRates.getSnapshotId();
         }
+        Transaction transaction = generateTransaction(copyOf(sourceAccount), destinationAccount, transferRequest, exchangeRate);
+        transaction.setRateSnapshotId(rateSnapshotId);
+        return commitTransfer(transaction, transferRequest.getQuoteId());
+    }
 
-        if (!doesCurrencyMatchesAccount(destinationAccount, transferRequest.getDestinationCurrency())) {
-            log.warn("Currency mismatch: requested {}, account supports {}", transferRequest.getDestinationCurrency(), destinationAccount.getCurrency());
-            return generateFailedTransfer(INVALID_CURRENCY_ERROR);
-        }
+    @Override
+    public List<TransferResult> transferBatch(Authentication authentication, BatchTransferRequest batchTransferRequest) {
+        List<TransferRequest> transferRequests = batchTransferRequest.getTransfers();
+        log.info("Initiating batch of {} transfers, atomic: {}", transferRequests.size(), batchTransferRequest.isAtomic());
 
-        Transaction transaction = generateTransaction(sourceAccount, destinationAccount, transferRequest);
-        return executeAccountTransfer(transaction);
+        List<TransferResult> results = batchTransferRequest.isAtomic()
+                ? executeAtomicBatch(authentication, transferRequests)
+                : executePerItemBatch(authentication, transferRequests);
+
+        log.info("Batch finished, {} of {} transfers succeeded", results.stream()
+                .filter(result -> result.getTransferStatus() == TransferStatus.SUCCESSFUL).count(), results.size());
+        return results;
     }
 
     @Override
@@ -216,11 +292,65 @@ public class TransactionServiceImpl implements TransactionService {
         return accountCurrency.equals(currencyCode);
     }
 
-    private void updateAccountBalance(Account account, BigDecimal accountBalance) throws Exception {
-        account.setBalance(accountBalance);
+    private String validateSourceAccount(Authentication authentication, Account sourceAccount, TransferRequest transferRequest) {
+        if (sourceAccount == null) {
+            log.warn("Source account not found for IBAN: {}", transferRequest.getSourceAccountNumber());
+            return SOURCE_ACCOUNT_NOT_FOUND_ERROR;
+        }
+        if (!doesAccountBelongsToRequester(authentication, sourceAccount)) {
+            log.warn("Unauthorized access attempt on account ID: {} by user: {}", sourceAccount.getId(), authentication.getName());
+            return UNAUTHORIZED_ACCOUNT_ERROR;
+        }
+        return null;
+    }
+
+    private String validateDestinationAccount(Account sourceAccount, Account destinationAccount, TransferRequest transferRequest) {
+        if (destinationAccount == null) {
+            log.warn("Destination account not found for IBAN: {}", transferRequest.getDestinationAccountNumber());
+            return DESTINATION_ACCOUNT_NOT_FOUND_ERROR;
+        }
+        if (sourceAccount.getId().equals(destinationAccount.getId())) {
+            log.warn("Transfer attempt between identical accounts: {}", sourceAccount.getId());
+            return IDENTICAL_SOURCE_AND_DESTINATION_ACCOUNT_ERROR;
+        }
+        if (!doesCurrencyMatchesAccount(destinationAccount, transferRequest.getDestinationCurrency())) {
+            log.warn("Currency mismatch: requested {}, account supports {}", transferRequest.getDestinationCurrency(), destinationAccount.getCurrency());
+            return INVALID_CURRENCY_ERROR;
+        }
+        return null;
+    }
+
+    // A quote locks the rate for its source account, currency pair and amount only
+    private String validateQuote(TransferQuote quote, Account sourceAccount, TransferRequest transferRequest) {
+        if (quote == null) {
+            log.warn("Quote {} not found or expired", transferRequest.getQuoteId());
+            return QUOTE_NOT_FOUND_ERROR;
+        }
+        if (!quote.getSourceAccountNumber().equals(sourceAccount.getIban())
+                || quote.getSourceCurrency() != sourceAccount.getCurrency()
+                || quote.getDestinationCurrency() != transferRequest.getDestinationCurrency()
+                || quote.getAmount().compareTo(transferRequest.getAmount()) != 0) {
+            log.warn("Transfer from {} does not match quote {}", sourceAccount.getIban(), quote.getQuoteId());
+            return QUOTE_MISMATCH_ERROR;
+        }
+        return null;
+    }
+
+    // Same currency transfers need no rate table, and therefore no call to the FX service
+    private ExchangeRateTable getExchangeRates(CurrencyCode sourceCurrency, CurrencyCode destinationCurrency) {
+        return sourceCurrency.equals(destinationCurrency) ? null : currencyExchangeService.getExchangeRates();
+    }
+
+    private BigDecimal getSourceCurrencyExchangeRate(ExchangeRateTable exchangeRates, CurrencyCode sourceCurrency,
+                                                     CurrencyCode destinationCurrency) {
+        if (exchangeRates == null) {
+            return BigDecimal.ONE;
+        }
+        return exchangeRates.getRate(destinationCurrency, sourceCurrency);
     }
 
-    private Transaction generateTransaction(Account sourceAccount, Account destinationAccount, TransferRequest transferRequest) {
+    private Transaction generateTransaction(Account sourceAccount, Account destinationAccount, TransferRequest transferRequest,
+                                            BigDecimal sourceCurrencyExchangeRate) {
 
         log.info("Generating transaction from source IBAN: {} to destination IBAN: {} ", sourceAccount.getIban(), destinationAccount.getIban());
 
@@ -233,9 +363,6 @@ public class TransactionServiceImpl implements TransactionService {
         } else {
             log.debug("Currency mismatch detected. Converting from {} to {}.",
                      sourceAccount.getCurrency(), transferRequest.getDestinationCurrency());
-            Map<CurrencyCode, BigDecimal> exchangeRates = currencyExchangeService.getExchangeRates(transferRequest.getDestinationCurrency());
-            CurrencyCode sourceAccountCurrencyCode = sourceAccount.getCurrency();
-            BigDecimal sourceCurrencyExchangeRate = exchangeRates.get(sourceAccountCurrencyCode);
             amountToTransferInSourceCurrency = transferRequest.getAmount().multiply(sourceCurrencyExchangeRate);
             log.debug("Converted amount to destination currency ({}): ", transferRequest.getDestinationCurrency());
         }
@@ -254,46 +381,230 @@ public class TransactionServiceImpl implements TransactionService {
         return transaction;
     }
 
+    private TransferResult commitTransfer(Transaction transaction, UUID quoteId) {
+        Account sourceAccount = transaction.getSourceAccount();
+        Account destinationAccount = transaction.getDestinationAccount();
+        // Lock before the transaction begins, so waiting for a stripe never holds a pooled connection
+        try (AccountLock ignored = accountLockManager.lock(sourceAccount.getIban(), destinationAccount.getIban())) {
+            // A quote is bound to its source account, so whoever redeems it concurrently waits on this stripe
+            if (quoteId != null && transferQuoteStore.get(quoteId) == null) {
+                log.warn("Quote {} was redeemed by a concurrent transfer", quoteId);
+                return generateFailedTransfer(QUOTE_NOT_FOUND_ERROR);
+            }
+            TransferResult transferResult = transactionTemplate.execute(status -> {
+                AccountBalance currentBalance = accountService.getAccountBalance(sourceAccount.getId())
+                        .orElseThrow(() -> new FailedAccountUpdateException(SOURCE_ACCOUNT_NOT_FOUND_ERROR));
+                sourceAccount.setBalance(currentBalance.getBalance());
+                sourceAccount.setVersion(currentBalance.getVersion());
+                return executeAccountTransfer(transaction);
+            });
+            // Only a committed transfer uses the quote up, a conflict retry still finds it
+            consumeQuote(quoteId, transferResult);
+            return transferResult;
+        }
+    }
+
+    private void consumeQuote(UUID quoteId, TransferResult transferResult) {
+        if (quoteId != null && transferResult.getTransferStatus() == TransferStatus.SUCCESSFUL) {
+            transferQuoteStore.invalidate(quoteId);
+        }
+    }
+
     private TransferResult executeAccountTransfer(Transaction transaction){
+        TransferResult transferResult = applyTransfer(transaction);
+        if (transferResult.getTransferStatus() == TransferStatus.SUCCESSFUL) {
+            transactionRepository.save(transaction);
+        }
+        return transferResult;
+    }
+
+    private TransferResult applyTransfer(Transaction transaction) {
         Account sourceAccount = transaction.getSourceAccount();
         Account destinationAccount = transaction.getDestinationAccount();
-        BigDecimal sourceAccountBalance = sourceAccount.getBalance();
-        BigDecimal amountToTransferInSourceCurrency = transaction.getSourceAmountDebited();
-        BigDecimal newSourceAccountBalance = sourceAccountBalance.subtract(amountToTransferInSourceCurrency);
+        transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
 
-        if(newSourceAccountBalance.compareTo(BigDecimal.ZERO) < 0) {
+        if (!accountService.debitAccount(sourceAccount, transaction.getSourceAmountDebited())) {
             log.warn("Transfer failed. Insufficient funds for Account : {})", sourceAccount.getId());
             return new TransferResult(TransferStatus.FAILED, INSUFFICIENT_BALANCE_ERROR);
         }
-        BigDecimal destinationAccountBalance = destinationAccount.getBalance();
-        BigDecimal amountToTransferInDestinationCurrency = transaction.getDestinationAmountCredited();
-        BigDecimal newDestinationAccountBalance = destinationAccountBalance.add(amountToTransferInDestinationCurrency);
-        transaction.setTimestamp(LocalDateTime.now(ZoneOffset.UTC));
+        log.info("Source account {} balance updated",
+                sourceAccount.getId());
+
+        if (!accountService.creditAccount(destinationAccount.getId(), transaction.getDestinationAmountCredited())) {
+            log.error("Failed to update balance for destination account {}", destinationAccount.getId());
+            throw new FailedAccountUpdateException(DESTINATION_ACCOUNT_NOT_FOUND_ERROR);
+        }
+        log.info("Destination account {} balance updated",
+                destinationAccount.getId());
+
+        log.info("Transfer successful: debited from {}, credited to {}",
+                sourceAccount.getId(), destinationAccount.getId());
+        return new TransferResult(TransferStatus.SUCCESSFUL, TRANSFER_SUCCEEDED);
+    }
+
+    private PreparedTransfer prepareTransfer(Authentication authentication, TransferRequest transferRequest,
+                                             Map<String, Account> accounts, BatchContext batchContext) {
+        Account sourceAccount = accounts.get(transferRequest.getSourceAccountNumber());
+        Account destinationAccount = accounts.get(transferRequest.getDestinationAccountNumber());
+        String validationError = validateSourceAccount(authentication, sourceAccount, transferRequest);
+        if (validationError == null) {
+            validationError = validateDestinationAccount(sourceAccount, destinationAccount, transferRequest);
+        }
+        TransferQuote quote = null;
+        if (validationError == null && transferRequest.getQuoteId() != null) {
+            // A quote can be used once, also within a batch
+            if (batchContext.quoteIds.add(transferRequest.getQuoteId())) {
+                quote = transferQuoteStore.get(transferRequest.getQuoteId());
+            }
+            validationError = validateQuote(quote, sourceAccount, transferRequest);
+        }
+        if (validationError != null) {
+            return new PreparedTransfer(null, null, generateFailedTransfer(validationError));
+        }
+        try {
+            BigDecimal exchangeRate = BigDecimal.ONE;
+            UUID rateSnapshotId = null;
+            if (quote != null) {
+                exchangeRate = quote.getExchangeRate();
+                rateSnapshotId = quote.getRateSnapshotId();
+            } else if (sourceAccount.getCurrency() != transferRequest.getDestinationCurrency()) {
+                if (batchContext.exchangeRates == null) {
+                    batchContext.exchangeRates = currencyExchangeService.getExchangeRates();
+                }
+                exchangeRate = batchContext.exchangeRates.getRate(transferRequest.getDestinationCurrency(), sourceAccount.getCurrency());
+                rateSnapshotId = batchContext.exchangeRates.getSnapshotId();
+            }
+            Transaction transaction = generateTransaction(sourceAccount, destinationAccount, transferRequest, exchangeRate);
+            transaction.setRateSnapshotId(rateSnapshotId);
+            return new PreparedTransfer(transaction, transferRequest.getQuoteId(), null);
+        } catch (CurrencyExchangeException e) {
+            log.error("Currency exchange rate retrieval failed for batch transfer from {}", transferRequest.getSourceAccountNumber());
+            return new PreparedTransfer(null, null, generateFailedTransfer(RETRIEVE_EXCHANGE_RATE_ERROR));
+        }
+    }
+
+    // Working copies track balance and version across the items of a batch
+    private Map<String, Account> loadWorkingCopies(String... ibans) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountService.getAccountsByIbans(Arrays.asList(ibans))) {
+            accounts.put(account.getIban(), copyOf(account));
+        }
+        return accounts;
+    }
+
+    private List<TransferResult> executeAtomicBatch(Authentication authentication, List<TransferRequest> transferRequests) {
+        String[] ibans = transferRequests.stream()
+                .flatMap(request -> Stream.of(request.getSourceAccountNumber(), request.getDestinationAccountNumber()))
+                .distinct()
+                .toArray(String[]::new);
+
+        // BatchTransferRequest caps atomic batches, as they hold the stripes of all their accounts until they commit
+        try (AccountLock ignored = accountLockManager.lock(ibans)) {
+            Map<String, Account> accounts = loadWorkingCopies(ibans);
+            BatchContext batchContext = new BatchContext();
+            List<PreparedTransfer> preparedTransfers = new ArrayList<>(transferRequests.size());
+            for (TransferRequest transferRequest : transferRequests) {
+                preparedTransfers.add(prepareTransfer(authentication, transferRequest, accounts, batchContext));
+            }
+            return commitAtomicBatch(preparedTransfers);
+        }
+    }
 
+    private List<TransferResult> commitAtomicBatch(List<PreparedTransfer> preparedTransfers) {
+        if (preparedTransfers.stream().anyMatch(preparedTransfer -> preparedTransfer.failure() != null)) {
+            log.warn("Atomic batch rejected during validation, nothing has been written");
+            return preparedTransfers.stream()
+                    .map(preparedTransfer -> preparedTransfer.failure() != null
+                            ? preparedTransfer.failure()
+                            : generateFailedTransfer(TRANSFER_ERROR))
+                    .toList();
+        }
 
+        List<TransferResult> results = new ArrayList<>(preparedTransfers.size());
         try {
-            updateAccountBalance(sourceAccount, newSourceAccountBalance);
-            log.info("Source account {} balance updated",
-                    sourceAccount.getId());
-        } catch (Exception e) {
-            log.error("Failed to update balance for source account {}", e.getMessage(), e);
-            throw new FailedAccountUpdateException(e.getMessage());
+            transactionTemplate.execute(status -> {
+                List<Transaction> transactions = new ArrayList<>(preparedTransfers.size());
+                for (PreparedTransfer preparedTransfer : preparedTransfers) {
+                    TransferResult transferResult = applyTransfer(preparedTransfer.transaction());
+                    results.add(transferResult);
+                    if (transferResult.getTransferStatus() != TransferStatus.SUCCESSFUL) {
+                        log.warn("Atomic batch item {} failed, rolling back the batch", results.size() - 1);
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    advanceWorkingCopies(preparedTransfer.transaction());
+                    transactions.add(preparedTransfer.transaction());
+                }
+                transactionRepository.saveAll(transactions);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Atomic batch failed and has been rolled back: {}", e.getMessage());
+            results.clear();
+        }
+
+        if (results.size() == preparedTransfers.size()
+                && results.stream().allMatch(result -> result.getTransferStatus() == TransferStatus.SUCCESSFUL)) {
+            for (int i = 0; i < preparedTransfers.size(); i++) {
+                consumeQuote(preparedTransfers.get(i).quoteId(), results.get(i));
+            }
+            return results;
         }
+        List<TransferResult> rolledBack = new ArrayList<>(preparedTransfers.size());
+        for (int i = 0; i < preparedTransfers.size(); i++) {
+            boolean causedRollback = i == results.size() - 1 && results.get(i).getTransferStatus() != TransferStatus.SUCCESSFUL;
+            rolledBack.add(causedRollback ? results.get(i) : generateFailedTransfer(TRANSFER_ERROR));
+        }
+        return rolledBack;
+    }
 
+    private List<TransferResult> executePerItemBatch(Authentication authentication, List<TransferRequest> transferRequests) {
+        BatchContext batchContext = new BatchContext();
+        List<TransferResult> results = new ArrayList<>(transferRequests.size());
+        for (TransferRequest transferRequest : transferRequests) {
+            String sourceIban = transferRequest.getSourceAccountNumber();
+            String destinationIban = transferRequest.getDestinationAccountNumber();
+            // Each item locks only its own accounts, so a large batch never holds the stripes other transfers need
+            try (AccountLock ignored = accountLockManager.lock(sourceIban, destinationIban)) {
+                PreparedTransfer preparedTransfer = prepareTransfer(authentication, transferRequest,
+                        loadWorkingCopies(sourceIban, destinationIban), batchContext);
+                results.add(preparedTransfer.failure() != null ? preparedTransfer.failure() : commitBatchItem(preparedTransfer));
+            } catch (AccountLockTimeoutException e) {
+                log.warn("Batch transfer from {} timed out waiting for the account lock", sourceIban);
+                results.add(generateFailedTransfer(ACCOUNT_LOCK_TIMEOUT_ERROR));
+            }
+        }
+        return results;
+    }
+
+    private TransferResult commitBatchItem(PreparedTransfer preparedTransfer) {
+        Transaction transaction = preparedTransfer.transaction();
         try {
-            updateAccountBalance(destinationAccount, newDestinationAccountBalance);
-            log.info("Destination account {} balance updated",
-                    destinationAccount.getId());
-        } catch (Exception e) {
-            log.error("Failed to update balance for destination account {}", e.getMessage(), e);
-            throw new FailedAccountUpdateException(e.getMessage());
+            TransferResult transferResult = transactionTemplate.execute(status -> executeAccountTransfer(transaction));
+            consumeQuote(preparedTransfer.quoteId(), transferResult);
+            return transferResult;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Batch transfer from {} conflicted with a concurrent update", transaction.getSourceAccount().getIban());
+            return generateFailedTransfer(ACCOUNT_CONFLICT_ERROR);
+        } catch (RuntimeException e) {
+            log.error("Batch transfer from {} failed: {}", transaction.getSourceAccount().getIban(), e.getMessage());
+            return generateFailedTransfer(TRANSFER_ERROR);
         }
+    }
 
-        transactionRepository.save(transaction);
+    private void advanceWorkingCopies(Transaction transaction) {
+        Account sourceAccount = transaction.getSourceAccount();
+        sourceAccount.setBalance(sourceAccount.getBalance().subtract(transaction.getSourceAmountDebited()));
+        sourceAccount.setVersion(sourceAccount.getVersion() + 1);
+        Account destinationAccount = transaction.getDestinationAccount();
+        destinationAccount.setBalance(destinationAccount.getBalance().add(transaction.getDestinationAmountCredited()));
+        destinationAccount.setVersion(destinationAccount.getVersion() + 1);
+    }
 
-        log.info("Transfer successful: debited from {}, credited to {}",
-                sourceAccount.getId(), destinationAccount.getId());
-        return new TransferResult(TransferStatus.SUCCESSFUL, TRANSFER_SUCCEEDED);
+    // Detached copy whose balance and version can be moved forward without Hibernate flushing it
+    private Account copyOf(Account account) {
+        return new Account(account.getId(), account.getCurrency(), account.getBalance(),
+                account.getClient(), account.getIban(), account.getVersion());
     }
 
     private Account getAccount(String iban) {
@@ -307,4 +618,13 @@ public class TransactionServiceImpl implements TransactionService {
     private TransferResult generateFailedTransfer(String errorMessage) {
         return new TransferResult(TransferStatus.FAILED, errorMessage);
     }
+
+    private record PreparedTransfer(Transaction transaction, UUID quoteId, TransferResult failure) {
+    }
+
+    // Shared by the items of one batch: the quotes they use and the rate table fetched for the first conversion
+    private static final class BatchContext {
+        private final Set<UUID> quoteIds = new HashSet<>();
+        private ExchangeRateTable exchangeRates;
+    }
 }
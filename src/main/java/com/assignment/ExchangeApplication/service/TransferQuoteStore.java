@@ -0,0 +1,52 @@
+package com.assignment.ExchangeApplication.service;
+
+import com.assignment.ExchangeApplication.model.dto.TransferQuote;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bounded in-memory store of issued quotes. Entries expire together with the quote, and a quote is removed once
+ * a transfer using it commits, so it can be redeemed once while it is valid and that transfer needs no exchange
+ * rate lookup.
+ */
+@Component
+public class TransferQuoteStore {
+    private final Cache<UUID, TransferQuote> quotes;
+    private final Duration validity;
+
+    public TransferQuoteStore(@Value("${transfer.quote.max-size}") long maximumSize,
+                              @Value("${transfer.quote.validity-seconds}") long validitySeconds
+    ) {
+        this.validity = Duration.ofSeconds(validitySeconds);
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(validity)
+                .build();
+    }
+
+    public Instant nextExpiry() {
+        return Instant.now().plus(validity);
+    }
+
+    public void put(TransferQuote quote) {
+        quotes.put(quote.getQuoteId(), quote);
+    }
+
+    public TransferQuote get(UUID quoteId) {
+        TransferQuote quote = quotes.getIfPresent(quoteId);
+        if (quote == null || quote.getExpiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        return quote;
+    }
+
+    public void invalidate(UUID quoteId) {
+        quotes.invalidate(quoteId);
+    }
+}
@@ -1,10 +1,13 @@
 package com.assignment.ExchangeApplication.service.interfaces;
 
 import com.assignment.ExchangeApplication.model.Account;
+import com.assignment.ExchangeApplication.model.dto.AccountBalance;
 import com.assignment.ExchangeApplication.model.dto.AccountCreateRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,8 +22,14 @@ public interface AccountService {
 
     Account getAccountByIban(String iban);
 
-    void updateAccount(Account account);
+    List<Account> getAccountsByIbans(Collection<String> ibans);
+
+    boolean creditAccount(UUID accountId, BigDecimal amount);
+
+    boolean debitAccount(Account account, BigDecimal amount);
 
     Optional<Account> getAccountById(UUID id);
 
+    Optional<AccountBalance> getAccountBalance(UUID id);
+
 }
@@ -4,8 +4,12 @@ import com.assignment.ExchangeApplication.model.Client;
 import com.assignment.ExchangeApplication.model.dto.ClientDto;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @Service
 public interface ClientService {
     Client registerClient(ClientDto clientDto);
+    Optional<Client> getClientById(UUID id);
 
 }
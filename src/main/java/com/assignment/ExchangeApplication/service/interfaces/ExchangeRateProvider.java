@@ -0,0 +1,18 @@
+package com.assignment.ExchangeApplication.service.interfaces;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
+
+/**
+ * Source of exchange rates. Every provider bean takes part in hedged fetching, in {@link org.springframework.core.Ordered}
+ * order, the first one being the primary.
+ */
+public interface ExchangeRateProvider {
+    String getName();
+
+    /**
+     * @param previous the rates fetched last time, possibly by another provider, or {@code null}
+     * @return fresh rates, or {@code previous} itself when the provider reports them unchanged
+     */
+    FetchedExchangeRates fetch(CurrencyCode baseCurrency, FetchedExchangeRates previous);
+}
@@ -0,0 +1,14 @@
+package com.assignment.ExchangeApplication.service.interfaces;
+
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface FxConversionService {
+    /**
+     * Reads a JSON array of conversion items and writes a JSON array with one result per item, in order.
+     */
+    void convert(ExchangeRateTable exchangeRates, InputStream items, OutputStream results) throws IOException;
+}
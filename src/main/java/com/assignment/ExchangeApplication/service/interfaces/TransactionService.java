@@ -2,7 +2,10 @@ package com.assignment.ExchangeApplication.service.interfaces;
 
 import com.assignment.ExchangeApplication.model.Transaction;
 import com.assignment.ExchangeApplication.model.dto.AccountResponseDto;
+import com.assignment.ExchangeApplication.model.dto.BatchTransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransactionRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferQuote;
+import com.assignment.ExchangeApplication.model.dto.TransferQuoteRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferResult;
 import org.springframework.data.domain.Page;
@@ -10,12 +13,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public interface TransactionService {
     AccountResponseDto depositAccount (Authentication authentication, TransactionRequest request);
     AccountResponseDto withdrawAccount (Authentication authentication, TransactionRequest request);
+    TransferQuote quoteTransfer(Authentication authentication, TransferQuoteRequest quoteRequest);
     TransferResult transferBetweenAccounts (Authentication authentication, TransferRequest transferRequest);
+    List<TransferResult> transferBatch(Authentication authentication, BatchTransferRequest batchTransferRequest);
     Page<Transaction> getTransactionsForAccount(Authentication authentication, UUID accountId, Pageable pageable);
 }
@@ -0,0 +1,106 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.AccessTokenCodec;
+import com.assignment.ExchangeApplication.configuration.BearerTokenAuthenticationFilter;
+import com.assignment.ExchangeApplication.enums.UserRole;
+import com.assignment.ExchangeApplication.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessTokenCodecTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final AccessTokenCodec accessTokenCodec = new AccessTokenCodec(SECRET, false, 900_000);
+
+    private Client getTestClient() {
+        Client client = new Client();
+        client.setId(UUID.fromString("50b24f6f-5c42-488d-9257-0329347e6da7"));
+        client.setUsername("john:doe");
+        client.setRole(UserRole.USER);
+        return client;
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verify_returnsPrincipalOfIssuedToken() {
+        Client client = getTestClient();
+
+        Optional<Client> principal = accessTokenCodec.verify(accessTokenCodec.issue(client));
+
+        assertTrue(principal.isPresent());
+        assertEquals(client.getId(), principal.get().getId());
+        assertEquals("john:doe", principal.get().getUsername());
+        assertEquals(UserRole.USER, principal.get().getRole());
+        assertEquals("ROLE_USER", principal.get().getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void verify_rejectsTamperedForeignAndExpiredTokens() {
+        String token = accessTokenCodec.issue(getTestClient());
+        String payload = token.substring(0, token.indexOf('.'));
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(payload)).replace("50b24f6f", "60b24f6f").getBytes());
+        AccessTokenCodec otherKey = new AccessTokenCodec(Base64.getEncoder().encodeToString(new byte[32]), false, 900_000);
+        AccessTokenCodec expired = new AccessTokenCodec(SECRET, false, -1_000);
+
+        assertTrue(accessTokenCodec.verify(forgedPayload + token.substring(token.indexOf('.'))).isEmpty());
+        assertTrue(otherKey.verify(token).isEmpty());
+        assertTrue(accessTokenCodec.verify(expired.issue(getTestClient())).isEmpty());
+        assertTrue(accessTokenCodec.verify("not-a-token").isEmpty());
+        assertTrue(accessTokenCodec.verify("!!.??").isEmpty());
+    }
+
+    @Test
+    void constructor_requiresSecretUnlessSingleNode() {
+        assertThrows(IllegalStateException.class, () -> new AccessTokenCodec("", false, 900_000));
+
+        AccessTokenCodec singleNode = new AccessTokenCodec("", true, 900_000);
+
+        assertTrue(singleNode.verify(singleNode.issue(getTestClient())).isPresent());
+    }
+
+    @Test
+    void filter_authenticatesBearerToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/client/");
+        request.addHeader("Authorization", "Bearer " + accessTokenCodec.issue(getTestClient()));
+        Authentication[] seen = new Authentication[1];
+
+        new BearerTokenAuthenticationFilter(accessTokenCodec).doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+                    @Override
+                    protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse res) {
+                        seen[0] = SecurityContextHolder.getContext().getAuthentication();
+                    }
+                }));
+
+        assertNotNull(seen[0]);
+        assertTrue(seen[0].isAuthenticated());
+        assertEquals(getTestClient().getId(), ((Client) seen[0].getPrincipal()).getId());
+    }
+
+    @Test
+    void filter_leavesInvalidTokenUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/client/");
+        request.addHeader("Authorization", "Bearer forged.token");
+
+        new BearerTokenAuthenticationFilter(accessTokenCodec).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,58 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.service.AccountConflictRetryListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccountConflictRetryListenerTests {
+
+    private RetryTemplate getRetryTemplate(SimpleMeterRegistry meterRegistry) {
+        return RetryTemplate.builder()
+                .maxAttempts(3)
+                .retryOn(OptimisticLockingFailureException.class)
+                .noBackoff()
+                .withListener(new AccountConflictRetryListener(meterRegistry))
+                .build();
+    }
+
+    @Test
+    void conflictThenSuccess_countsConflictAndRetry() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+
+        getRetryTemplate(meterRegistry).execute(context -> {
+            context.setAttribute(RetryContext.NAME, "transfer");
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return null;
+        });
+
+        assertEquals(1.0, meterRegistry.get("account.optimistic.conflicts").tag("endpoint", "transfer").counter().count());
+        assertEquals(1.0, meterRegistry.get("account.optimistic.retries").tag("endpoint", "transfer").counter().count());
+        assertEquals(0, meterRegistry.find("account.optimistic.giveups").counters().size());
+    }
+
+    @Test
+    void conflictOnEveryAttempt_countsGiveUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                getRetryTemplate(meterRegistry).execute(context -> {
+                    context.setAttribute(RetryContext.NAME, "withdraw");
+                    throw new OptimisticLockingFailureException("conflict");
+                }));
+
+        assertEquals(3.0, meterRegistry.get("account.optimistic.conflicts").tag("endpoint", "withdraw").counter().count());
+        assertEquals(2.0, meterRegistry.get("account.optimistic.retries").tag("endpoint", "withdraw").counter().count());
+        assertEquals(1.0, meterRegistry.get("account.optimistic.giveups").tag("endpoint", "withdraw").counter().count());
+    }
+}
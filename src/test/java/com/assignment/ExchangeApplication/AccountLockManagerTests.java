@@ -0,0 +1,89 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.exceptions.FailedAccountUpdateException;
+import com.assignment.ExchangeApplication.service.AccountLockManager;
+import com.assignment.ExchangeApplication.service.AccountLockManager.AccountLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.ACCOUNT_LOCK_TIMEOUT_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountLockManagerTests {
+
+    private static final String FIRST_IBAN = "LV23HABASAXMQ749DHCA1";
+    private static final String SECOND_IBAN = "LV18HABA4P32VIMESXWV6";
+
+    @Test
+    void lock_oppositeOrderTransfers_doNotDeadlock() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(new SimpleMeterRegistry(), 64, 5000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger completed = new AtomicInteger();
+        try {
+            CompletableFuture<?> forward = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try (AccountLock ignored = lockManager.lock(FIRST_IBAN, SECOND_IBAN)) {
+                        completed.incrementAndGet();
+                    }
+                }
+            }, executor);
+            CompletableFuture<?> backward = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try (AccountLock ignored = lockManager.lock(SECOND_IBAN, FIRST_IBAN)) {
+                        completed.incrementAndGet();
+                    }
+                }
+            }, executor);
+            CompletableFuture.allOf(forward, backward).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(20_000, completed.get());
+    }
+
+    @Test
+    void lock_sameStripeTwice_isAcquiredOnce() {
+        AccountLockManager lockManager = new AccountLockManager(new SimpleMeterRegistry(), 1, 100);
+
+        try (AccountLock ignored = lockManager.lock(FIRST_IBAN, SECOND_IBAN)) {
+            assertNotNull(ignored);
+        }
+        try (AccountLock ignored = lockManager.lock(FIRST_IBAN)) {
+            assertNotNull(ignored);
+        }
+    }
+
+    @Test
+    void lock_heldByAnotherThread_timesOut() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccountLockManager lockManager = new AccountLockManager(meterRegistry, 16, 50);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (AccountLock ignored = lockManager.lock(FIRST_IBAN)) {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        FailedAccountUpdateException exception = assertThrows(FailedAccountUpdateException.class,
+                () -> lockManager.lock(FIRST_IBAN));
+
+        release.countDown();
+        holder.join();
+        assertEquals(ACCOUNT_LOCK_TIMEOUT_ERROR, exception.getMessage());
+        assertEquals(1.0, meterRegistry.get("account.lock.timeouts").counter().count());
+        assertEquals(2, meterRegistry.get("account.lock.wait").timer().count());
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 
 import java.math.BigDecimal;
@@ -174,10 +175,37 @@ public class AccountServiceTests {
     }
 
     @Test
-    public void testUpdateAccount_Success() {
+    public void testDebitAccount_sufficientBalance_returnsTrue() {
         Account account = getTestAccount();
-        when(accountRepositoryMock.save(account)).thenReturn(null);
-        accountService.updateAccount(account);
-        verify(accountRepositoryMock).save(account);
+        when(accountRepositoryMock.debitBalance(account.getId(), BigDecimal.TEN, account.getVersion())).thenReturn(1);
+
+        assertTrue(accountService.debitAccount(account, BigDecimal.TEN));
+    }
+
+    @Test
+    public void testDebitAccount_insufficientBalance_returnsFalse() {
+        Account account = getTestAccount();
+        BigDecimal amount = BigDecimal.valueOf(500);
+        when(accountRepositoryMock.debitBalance(account.getId(), amount, account.getVersion())).thenReturn(0);
+
+        assertFalse(accountService.debitAccount(account, amount));
+    }
+
+    @Test
+    public void testDebitAccount_concurrentUpdate_throwsException() {
+        Account account = getTestAccount();
+        when(accountRepositoryMock.debitBalance(account.getId(), BigDecimal.TEN, account.getVersion())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                accountService.debitAccount(account, BigDecimal.TEN));
+    }
+
+    @Test
+    public void testCreditAccount_Success() {
+        UUID accountId = getTestAccountId();
+        when(accountRepositoryMock.creditBalance(accountId, BigDecimal.TEN)).thenReturn(1);
+
+        assertTrue(accountService.creditAccount(accountId, BigDecimal.TEN));
+        verify(accountRepositoryMock).creditBalance(accountId, BigDecimal.TEN);
     }
 }
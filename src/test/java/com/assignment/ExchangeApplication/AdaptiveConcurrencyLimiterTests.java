@@ -0,0 +1,105 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.AdaptiveConcurrencyLimiter;
+import com.assignment.ExchangeApplication.configuration.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    private static final long ONE_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAcquire_rejectsOnceLimitIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 2, 1, 10, 1.5, 0.2);
+
+        Optional<AdaptiveConcurrencyLimiter.Permit> first = limiter.tryAcquire();
+        Optional<AdaptiveConcurrencyLimiter.Permit> second = limiter.tryAcquire();
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertTrue(limiter.tryAcquire().isEmpty());
+        first.get().release();
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, meterRegistry.get("concurrency.limit.requests").tag("outcome", "rejected").counter().count());
+        assertEquals(2, meterRegistry.get("concurrency.limit.requests").tag("outcome", "accepted").counter().count());
+    }
+
+    @Test
+    void onSample_growsLimitWhileLatencyHoldsUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 4, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(ONE_MS, limiter.getLimit());
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+        assertEquals(limiter.getLimit(), meterRegistry.get("concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void onSample_keepsLimitWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 4, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(ONE_MS, 1);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void onSample_shrinksLimitWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 40, 4, 100, 1.5, 0.2);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(ONE_MS, 1);
+        }
+
+        limiter.onSample(10 * ONE_MS, 40);
+        int reduced = limiter.getLimit();
+        for (int i = 0; i < 25; i++) {
+            limiter.onSample(10 * ONE_MS, limiter.getLimit());
+        }
+
+        assertTrue(reduced < 40);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void filter_shedsTransactionWritesOverTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 1, 1, 10, 1.5, 0.2);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, new ObjectMapper(), 1);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire().orElseThrow();
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/transfer"), shed, chain);
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transaction/" + UUID.randomUUID()), read, new MockFilterChain());
+        held.release();
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/transfer"), accepted, new MockFilterChain());
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        verify(chain, never()).doFilter(any(), any());
+        assertEquals(200, read.getStatus());
+        assertEquals(200, accepted.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
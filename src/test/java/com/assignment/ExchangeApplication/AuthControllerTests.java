@@ -0,0 +1,115 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.AccessTokenCodec;
+import com.assignment.ExchangeApplication.configuration.LoginThrottle;
+import com.assignment.ExchangeApplication.controller.AuthController;
+import com.assignment.ExchangeApplication.enums.UserRole;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.assignment.ExchangeApplication.model.dto.TokenRequest;
+import com.assignment.ExchangeApplication.model.dto.TokenResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.INVALID_CREDENTIALS_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.PASSWORD_HASHING_UNAVAILABLE_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.TOO_MANY_LOGIN_ATTEMPTS_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthControllerTests {
+
+    @Mock
+    private AuthenticationManager authenticationManagerMock;
+
+    @Mock
+    private AccessTokenCodec accessTokenCodecMock;
+
+    @Mock
+    private LoginThrottle loginThrottleMock;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @InjectMocks
+    private AuthController authController;
+
+    @Test
+    void issueToken_success() {
+        Client client = new Client();
+        client.setId(UUID.fromString("50b24f6f-5c42-488d-9257-0329347e6da7"));
+        client.setUsername("johndoe");
+        client.setRole(UserRole.USER);
+        when(authenticationManagerMock.authenticate(any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(client, null, List.of()));
+        when(accessTokenCodecMock.issue(client)).thenReturn("token");
+        when(accessTokenCodecMock.getTimeToLive()).thenReturn(Duration.ofMinutes(15));
+        when(loginThrottleMock.tryAcquire("johndoe", request.getRemoteAddr())).thenReturn(true);
+
+        ResponseEntity<Object> response = authController.issueToken(new TokenRequest("johndoe", "TestPassword123"), request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        TokenResponse tokenResponse = (TokenResponse) response.getBody();
+        assertEquals("token", tokenResponse.getAccessToken());
+        assertEquals("Bearer", tokenResponse.getTokenType());
+        assertEquals(900, tokenResponse.getExpiresIn());
+        verify(loginThrottleMock).recordSuccess("johndoe", request.getRemoteAddr());
+    }
+
+    @Test
+    void issueToken_invalidCredentials() {
+        when(loginThrottleMock.tryAcquire("johndoe", request.getRemoteAddr())).thenReturn(true);
+        when(authenticationManagerMock.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        ResponseEntity<Object> response = authController.issueToken(new TokenRequest("johndoe", "wrong"), request);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(INVALID_CREDENTIALS_ERROR, ((ErrorResponse) response.getBody()).getError());
+        verify(accessTokenCodecMock, never()).issue(any());
+        verify(loginThrottleMock).recordFailure("johndoe", request.getRemoteAddr());
+        verify(loginThrottleMock, never()).recordSuccess(any(), any());
+    }
+
+    @Test
+    void issueToken_saturatedHashingAnswers503WithRetryAfter() {
+        when(loginThrottleMock.tryAcquire("johndoe", request.getRemoteAddr())).thenReturn(true);
+        when(authenticationManagerMock.authenticate(any()))
+                .thenThrow(new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, 4));
+
+        ResponseEntity<Object> response = authController.issueToken(new TokenRequest("johndoe", "TestPassword123"), request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("4", response.getHeaders().getFirst("Retry-After"));
+        assertEquals(PASSWORD_HASHING_UNAVAILABLE_ERROR, ((ErrorResponse) response.getBody()).getError());
+        verify(loginThrottleMock).release("johndoe", request.getRemoteAddr());
+        verify(loginThrottleMock, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void issueToken_throttledBeforePasswordCheck() {
+        when(loginThrottleMock.tryAcquire("johndoe", request.getRemoteAddr())).thenReturn(false);
+        when(loginThrottleMock.getRetryAfterSeconds()).thenReturn(300L);
+
+        ResponseEntity<Object> response = authController.issueToken(new TokenRequest("johndoe", "TestPassword123"), request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("300", response.getHeaders().getFirst("Retry-After"));
+        assertEquals(TOO_MANY_LOGIN_ATTEMPTS_ERROR, ((ErrorResponse) response.getBody()).getError());
+        verifyNoInteractions(authenticationManagerMock);
+    }
+}
@@ -0,0 +1,79 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.ExchangeRateTableRedisSerializer;
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the binary rate table codec with the JDK serialization of the rate map previously cached, for a table
+ * covering every supported currency. Decoding times depend on the machine, so that comparison is tagged
+ * {@code benchmark} and only runs with {@code mvn test -Pbenchmarks}.
+ */
+public class CacheSerializationBenchmarkTests {
+
+    private static final int WARM_UP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+
+    private Map<CurrencyCode, BigDecimal> getTestRates() {
+        Map<CurrencyCode, BigDecimal> rates = new HashMap<>();
+        for (CurrencyCode currencyCode : CurrencyCode.values()) {
+            rates.put(currencyCode, BigDecimal.valueOf(0.5 + currencyCode.ordinal() * 13.371234));
+        }
+        return rates;
+    }
+
+    private static long averageNanos(Supplier<?> decode) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            assertNotNull(decode.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            assertNotNull(decode.get());
+        }
+        return (System.nanoTime() - start) / MEASURED_ROUNDS;
+    }
+
+    private byte[] jdkPayload(Map<CurrencyCode, BigDecimal> rates) {
+        return new JdkSerializationRedisSerializer().serialize(new HashMap<>(rates));
+    }
+
+    private byte[] binaryPayload(Map<CurrencyCode, BigDecimal> rates) {
+        return new ExchangeRateTableRedisSerializer().serialize(ExchangeRateTable.fromRates(CurrencyCode.USD, rates,
+                1700000000L, 1700086400L).withSnapshotId(UUID.randomUUID()));
+    }
+
+    @Test
+    void binaryCodec_isLessThanHalfTheSizeOfJdkSerialization() {
+        Map<CurrencyCode, BigDecimal> rates = getTestRates();
+
+        assertTrue(binaryPayload(rates).length * 2 < jdkPayload(rates).length);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void binaryCodec_isFasterToDecodeThanJdkSerialization() {
+        Map<CurrencyCode, BigDecimal> rates = getTestRates();
+        RedisSerializer<Object> jdkSerializer = new JdkSerializationRedisSerializer();
+        ExchangeRateTableRedisSerializer binarySerializer = new ExchangeRateTableRedisSerializer();
+        byte[] jdkPayload = jdkPayload(rates);
+        byte[] binaryPayload = binaryPayload(rates);
+
+        long jdkDecodeNanos = averageNanos(() -> jdkSerializer.deserialize(jdkPayload));
+        long binaryDecodeNanos = averageNanos(() -> binarySerializer.deserialize(binaryPayload));
+
+        assertTrue(binaryDecodeNanos < jdkDecodeNanos, String.format("%d currencies: JDK map %d ns to decode, binary table %d ns",
+                rates.size(), jdkDecodeNanos, binaryDecodeNanos));
+    }
+}
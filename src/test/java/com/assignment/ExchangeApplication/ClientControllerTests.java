@@ -2,8 +2,10 @@ package com.assignment.ExchangeApplication;
 
 import com.assignment.ExchangeApplication.controller.ClientController;
 import com.assignment.ExchangeApplication.exceptions.EmailExistsException;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
 import com.assignment.ExchangeApplication.exceptions.UsernameExistsException;
 import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
 import com.assignment.ExchangeApplication.model.dto.ClientDto;
 import com.assignment.ExchangeApplication.service.interfaces.ClientService;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.*;
@@ -104,14 +107,38 @@ public class ClientControllerTests {
         assertTrue(response.getBody().toString().contains(PASSWORD_POLICY_ERROR));
     }
 
+    @Test
+    void registerUser_hashingUnavailable() {
+        when(clientServiceMock.registerClient(any(ClientDto.class)))
+                .thenThrow(new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, 1));
+
+        ResponseEntity<Object> response = clientController.registerUser(getTestClientDto());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
     @Test
     void getClientInfo_returnsClientInfo() {
         Client client = getTestClient();
         when(authenticationMock.getPrincipal()).thenReturn(client);
+        when(clientServiceMock.getClientById(client.getId())).thenReturn(Optional.of(client));
 
-        ResponseEntity<Client> response = clientController.getClientInfo(authenticationMock);
+        ResponseEntity<Object> response = clientController.getClientInfo(authenticationMock);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(client, response.getBody());
     }
+
+    @Test
+    void getClientInfo_clientNotFound() {
+        Client client = getTestClient();
+        when(authenticationMock.getPrincipal()).thenReturn(client);
+        when(clientServiceMock.getClientById(client.getId())).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = clientController.getClientInfo(authenticationMock);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        assertEquals(CLIENT_NOT_FOUND_ERROR, errorResponse.getError());
+    }
 }
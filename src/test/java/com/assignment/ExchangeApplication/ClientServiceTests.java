@@ -2,6 +2,7 @@ package com.assignment.ExchangeApplication;
 
 import com.assignment.ExchangeApplication.enums.UserRole;
 import com.assignment.ExchangeApplication.exceptions.EmailExistsException;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
 import com.assignment.ExchangeApplication.exceptions.UsernameExistsException;
 import com.assignment.ExchangeApplication.model.Client;
 import com.assignment.ExchangeApplication.model.dto.ClientDto;
@@ -9,12 +10,18 @@ import com.assignment.ExchangeApplication.repository.ClientRepository;
 import com.assignment.ExchangeApplication.service.ClientServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.assignment.ExchangeApplication.configuration.CacheInvalidationBus;
+import com.assignment.ExchangeApplication.configuration.PrincipalCache;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Optional;
+
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.EMAIL_IN_USE_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.PASSWORD_HASHING_UNAVAILABLE_ERROR;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.USERNAME_IN_USE_ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +36,12 @@ public class ClientServiceTests {
     @Mock
     private PasswordEncoder passwordEncoderMock;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBusMock;
+
+    @Mock
+    private PrincipalCache principalCacheMock;
+
     @InjectMocks
     private ClientServiceImpl clientService;
 
@@ -55,6 +68,8 @@ public class ClientServiceTests {
         assertEquals(clientDto.getUsername(), client.getUsername());
         assertEquals(UserRole.USER, client.getRole());
         verify(clientRepositoryMock).save(any(Client.class));
+        verify(principalCacheMock).removeUserFromCache(clientDto.getUsername());
+        verify(cacheInvalidationBusMock).publish(CacheInvalidationBus.CLIENTS_REGION, clientDto.getUsername());
     }
 
     @Test
@@ -111,4 +126,32 @@ public class ClientServiceTests {
 
         assertThrows(RuntimeException.class, () -> clientService.registerClient(clientDto));
     }
+
+    @Test
+    void registerClient_hashingUnavailable_propagates() {
+        ClientDto clientDto = getTestClientDto();
+        when(clientRepositoryMock.existsByEmail(clientDto.getEmail())).thenReturn(false);
+        when(clientRepositoryMock.existsByUsername(clientDto.getUsername())).thenReturn(false);
+        when(passwordEncoderMock.encode(clientDto.getPassword()))
+                .thenThrow(new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, 1));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> clientService.registerClient(clientDto));
+        verify(clientRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    void updatePassword_savesRehashedPasswordAndInvalidatesPrincipal() {
+        Client client = new Client();
+        client.setUsername("johndoe");
+        client.setPassword("$2a$04$old");
+        client.setRole(UserRole.USER);
+        when(clientRepositoryMock.findByUsername("johndoe")).thenReturn(Optional.of(client));
+
+        UserDetails updated = clientService.updatePassword(client, "$2a$10$new");
+
+        assertEquals("$2a$10$new", updated.getPassword());
+        verify(clientRepositoryMock).save(client);
+        verify(principalCacheMock).removeUserFromCache("johndoe");
+        verify(cacheInvalidationBusMock).publish(CacheInvalidationBus.CLIENTS_REGION, "johndoe");
+    }
 }
@@ -0,0 +1,104 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.service.CurrencyExchangeCircuitBreaker;
+import com.assignment.ExchangeApplication.service.CurrencyExchangeCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CurrencyExchangeCircuitBreakerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CurrencyExchangeCircuitBreaker circuitBreaker;
+
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.shutdown();
+    }
+
+    private void fail(CurrencyExchangeCircuitBreaker circuitBreaker) {
+        assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+            throw new IllegalStateException("upstream down");
+        }));
+    }
+
+    @Test
+    void execute_opensAfterConsecutiveFailuresAndFailsFast() {
+        circuitBreaker = new CurrencyExchangeCircuitBreaker(meterRegistry, 2, 60_000, 1_000, 1, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        fail(circuitBreaker);
+        fail(circuitBreaker);
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertThrows(CurrencyExchangeException.class, () -> circuitBreaker.execute(calls::incrementAndGet));
+        assertEquals(0, calls.get());
+        assertEquals(1, meterRegistry.get("exchange.circuit.state").gauge().value());
+        assertEquals(1, meterRegistry.get("exchange.circuit.calls").tag("outcome", "short_circuited").counter().count());
+    }
+
+    @Test
+    void execute_trialCallClosesCircuitAfterOpenPeriod() throws Exception {
+        circuitBreaker = new CurrencyExchangeCircuitBreaker(meterRegistry, 1, 50, 1_000, 1, 1);
+
+        fail(circuitBreaker);
+        Thread.sleep(100);
+
+        assertEquals("ok", circuitBreaker.execute(() -> "ok"));
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_timeoutCountsAsFailure() {
+        circuitBreaker = new CurrencyExchangeCircuitBreaker(meterRegistry, 1, 60_000, 50, 1, 1);
+
+        assertThrows(CurrencyExchangeException.class, () -> circuitBreaker.execute(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }));
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertEquals(1, meterRegistry.get("exchange.circuit.calls").tag("outcome", "timeout").counter().count());
+    }
+
+    @Test
+    void execute_interruptedTrialCallReopensCircuit() throws Exception {
+        circuitBreaker = new CurrencyExchangeCircuitBreaker(meterRegistry, 1, 50, 5_000, 1, 1);
+        fail(circuitBreaker);
+        Thread.sleep(100);
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread caller = new Thread(() -> assertThrows(CurrencyExchangeException.class, () -> circuitBreaker.execute(() -> {
+            trialStarted.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        })));
+        caller.start();
+        assertTrue(trialStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertEquals(1, meterRegistry.get("exchange.circuit.calls").tag("outcome", "interrupted").counter().count());
+        Thread.sleep(100);
+        assertEquals("ok", circuitBreaker.execute(() -> "ok"));
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,237 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.configuration.ExchangeRateTableRedisSerializer;
+import com.assignment.ExchangeApplication.model.ExchangeRateSnapshot;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.repository.ExchangeRateSnapshotRepository;
+import com.assignment.ExchangeApplication.service.CurrencyExchangeCircuitBreaker;
+import com.assignment.ExchangeApplication.service.CurrencyExchangeServiceImpl;
+import com.assignment.ExchangeApplication.service.ExchangeRateHistoryStore;
+import com.assignment.ExchangeApplication.service.ExchangeRateSnapshotStore;
+import com.assignment.ExchangeApplication.service.HedgedExchangeRateClient;
+import com.assignment.ExchangeApplication.service.HttpExchangeRateProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CurrencyExchangeServiceTests {
+
+    private static final String RATES_RESPONSE = """
+            {"result":"success","time_last_update_unix":1700000000,"time_next_update_unix":%d,
+             "base_code":"USD","rates":{"USD":1,"EUR":0.8,"GBP":0.5}}
+            """;
+
+    private final AtomicInteger upstreamRequests = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private volatile String responseBody = RATES_RESPONSE.formatted(4102444800L);
+    private final CountDownLatch releaseResponse = new CountDownLatch(1);
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private CurrencyExchangeCircuitBreaker circuitBreaker;
+    private HedgedExchangeRateClient exchangeRateClient;
+    @TempDir
+    private Path historyDirectory;
+    private ExchangeRateSnapshotRepository snapshotRepository;
+    private CurrencyExchangeServiceImpl currencyExchangeService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v6/latest/USD", exchange -> {
+            upstreamRequests.incrementAndGet();
+            try {
+                releaseResponse.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (responseStatus == 304) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CurrencyExchangeCircuitBreaker(meterRegistry, 2, 60_000, 2_000, 2, 16);
+        HttpExchangeRateProvider provider = new HttpExchangeRateProvider("primary", new RestTemplateBuilder(),
+                HttpClient.newHttpClient(), "http://localhost:" + server.getAddress().getPort(), Duration.ofSeconds(2), 0);
+        exchangeRateClient = new HedgedExchangeRateClient(List.of(provider), meterRegistry, 300, 50);
+        snapshotRepository = mock(ExchangeRateSnapshotRepository.class);
+        when(snapshotRepository.save(any())).thenAnswer(invocation -> {
+            ExchangeRateSnapshot snapshot = invocation.getArgument(0);
+            snapshot.setId(UUID.randomUUID());
+            return snapshot;
+        });
+        currencyExchangeService = new CurrencyExchangeServiceImpl(exchangeRateClient, meterRegistry, circuitBreaker,
+                new ExchangeRateSnapshotStore(snapshotRepository), new ExchangeRateHistoryStore(historyDirectory, 168), 3_600_000, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.shutdown();
+        exchangeRateClient.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void getExchangeRates_concurrentMissesShareOneUpstreamCall() throws Exception {
+        int callers = 8;
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch calling = new CountDownLatch(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<ExchangeRateTable>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    calling.countDown();
+                    return currencyExchangeService.getExchangeRates();
+                }));
+            }
+            assertTrue(calling.await(5, TimeUnit.SECONDS));
+            // The first caller waits for the upstream response, the others for its load
+            awaitParked(threads);
+            releaseResponse.countDown();
+
+            for (Future<ExchangeRateTable> result : results) {
+                assertEquals(0.625, result.get(5, TimeUnit.SECONDS).rate(CurrencyCode.EUR, CurrencyCode.GBP));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, upstreamRequests.get());
+        DistributionSummary callersPerLoad = meterRegistry.get("exchange.rates.load.callers").summary();
+        assertEquals(1, callersPerLoad.count());
+        assertEquals(callers, callersPerLoad.totalAmount());
+    }
+
+    private static void awaitParked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING
+                || thread.getState() == Thread.State.TIMED_WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "callers did not block on the shared load");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void getExchangeRates_servesCurrentTableWithoutUpstreamCall() {
+        releaseResponse.countDown();
+
+        currencyExchangeService.refreshExchangeRates();
+        currencyExchangeService.getExchangeRates();
+
+        assertEquals(1, upstreamRequests.get());
+    }
+
+    @Test
+    void getExchangeRates_servesLastKnownGoodRatesWhileUpstreamFails() {
+        releaseResponse.countDown();
+        responseBody = RATES_RESPONSE.formatted(Instant.now().getEpochSecond() - 60);
+        currencyExchangeService.refreshExchangeRates();
+        responseStatus = 500;
+
+        ExchangeRateTable table = currencyExchangeService.getExchangeRates();
+
+        assertEquals(0.8, table.ratePerBase(CurrencyCode.EUR));
+        assertEquals(2, upstreamRequests.get());
+        assertEquals(1, meterRegistry.get("exchange.rates.stale.served").counter().count());
+    }
+
+    @Test
+    void getExchangeRates_failsOnceRatesAreBeyondStalenessBudget() {
+        releaseResponse.countDown();
+        responseBody = RATES_RESPONSE.formatted(Instant.now().getEpochSecond() - 7_200);
+        currencyExchangeService.refreshExchangeRates();
+        responseStatus = 500;
+
+        assertThrows(CurrencyExchangeException.class, () -> currencyExchangeService.getExchangeRates());
+    }
+
+    @Test
+    void getExchangeRates_notModifiedMovesTheScheduleForward() {
+        releaseResponse.countDown();
+        responseBody = RATES_RESPONSE.formatted(Instant.now().getEpochSecond() - 60);
+        ExchangeRateTable fetched = currencyExchangeService.refreshExchangeRates();
+        responseStatus = 304;
+
+        ExchangeRateTable revalidated = currencyExchangeService.getExchangeRates();
+        currencyExchangeService.getExchangeRates();
+
+        assertEquals(2, upstreamRequests.get());
+        assertEquals(fetched.getSnapshotId(), revalidated.getSnapshotId());
+        assertEquals(fetched.getLastUpdateUnix(), revalidated.getLastUpdateUnix());
+        assertTrue(revalidated.getNextUpdateUnix() >= Instant.now().getEpochSecond() + 590);
+    }
+
+    @Test
+    void refreshExchangeRates_stampsTableWithSavedSnapshot() {
+        releaseResponse.countDown();
+
+        ExchangeRateTable table = currencyExchangeService.refreshExchangeRates();
+
+        assertNotNull(table.getSnapshotId());
+        verify(snapshotRepository).save(argThat(snapshot -> snapshot.getBaseCurrency() == CurrencyCode.USD
+                && snapshot.getProvider().equals("primary")));
+    }
+
+    @Test
+    void getExchangeRates_warmStartsFromLatestSnapshot() {
+        UUID snapshotId = UUID.randomUUID();
+        ExchangeRateTable persisted = ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(CurrencyCode.EUR, new BigDecimal("0.9")),
+                1700000000L, 4102444800L);
+        when(snapshotRepository.findFirstByBaseCurrencyOrderByCreatedAtDesc(CurrencyCode.USD)).thenReturn(Optional.of(
+                new ExchangeRateSnapshot(snapshotId, CurrencyCode.USD, 1700000000L, "primary", null, null,
+                        LocalDateTime.now(), new ExchangeRateTableRedisSerializer().serialize(persisted))));
+
+        currencyExchangeService.restoreSnapshot();
+        ExchangeRateTable table = currencyExchangeService.getExchangeRates();
+
+        assertEquals(0.9, table.ratePerBase(CurrencyCode.EUR));
+        assertEquals(snapshotId, table.getSnapshotId());
+        assertEquals(0, upstreamRequests.get());
+    }
+}
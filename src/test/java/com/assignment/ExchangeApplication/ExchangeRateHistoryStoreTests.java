@@ -0,0 +1,118 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.dto.HistoricalRate;
+import com.assignment.ExchangeApplication.service.ExchangeRateHistoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExchangeRateHistoryStoreTests {
+
+    private static final long START = 1_700_000_000L;
+    private static final long HOUR = 3_600L;
+
+    @TempDir
+    private Path directory;
+
+    private ExchangeRateTable getTestTable(long lastUpdateUnix, String eurRate, String gbpRate) {
+        return ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(
+                CurrencyCode.EUR, new BigDecimal(eurRate),
+                CurrencyCode.GBP, new BigDecimal(gbpRate)), lastUpdateUnix, lastUpdateUnix + HOUR);
+    }
+
+    private static String getDriftingRate(int hour) {
+        return String.format(Locale.ROOT, "%.6f", 0.9 + Math.sin(hour / 100.0) / 1000);
+    }
+
+    private void recordTestTables(ExchangeRateHistoryStore historyStore) {
+        historyStore.record(getTestTable(START, "0.8", "0.5"));
+        historyStore.record(getTestTable(START + HOUR, "0.9", "0.6"));
+        historyStore.record(getTestTable(START + 2 * HOUR, "0.92", "0.8"));
+        historyStore.record(getTestTable(START + 3 * HOUR, "0.925344", "0.79"));
+        historyStore.record(getTestTable(START + 4 * HOUR, "1.1", "0.55"));
+    }
+
+    private static void assertRate(String expected, HistoricalRate historicalRate) {
+        assertEquals(0, new BigDecimal(expected).compareTo(historicalRate.getRate()));
+    }
+
+    @Test
+    void rateAsOf_usesLatestTableAtOrBeforeTime() {
+        ExchangeRateHistoryStore historyStore = new ExchangeRateHistoryStore(directory, 2);
+        recordTestTables(historyStore);
+
+        assertRate("0.625", historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START)));
+        assertRate("0.625", historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START + 10)));
+        HistoricalRate historicalRate = historyStore.rateAsOf(CurrencyCode.GBP, CurrencyCode.EUR, Instant.ofEpochSecond(START + 2 * HOUR + 59));
+        assertRate("1.15", historicalRate);
+        assertEquals(Instant.ofEpochSecond(START + 2 * HOUR), historicalRate.getRatesUpdatedAt());
+        assertRate("0.925344", historyStore.rateAsOf(CurrencyCode.USD, CurrencyCode.EUR, Instant.ofEpochSecond(START + 3 * HOUR)));
+        assertRate("0.5", historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START + 365 * 24 * HOUR)));
+    }
+
+    @Test
+    void rateAsOf_unknownTimeOrCurrency() {
+        ExchangeRateHistoryStore historyStore = new ExchangeRateHistoryStore(directory, 2);
+        recordTestTables(historyStore);
+
+        assertThrows(CurrencyExchangeException.class, () ->
+                historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START - 1)));
+        assertThrows(CurrencyExchangeException.class, () ->
+                historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.JPY, Instant.ofEpochSecond(START + HOUR)));
+    }
+
+    @Test
+    void record_ignoresTablesNotNewerThanLatest() {
+        ExchangeRateHistoryStore historyStore = new ExchangeRateHistoryStore(directory, 2);
+        recordTestTables(historyStore);
+
+        historyStore.record(getTestTable(START + 4 * HOUR, "2", "2"));
+        historyStore.record(getTestTable(START + HOUR, "2", "2"));
+
+        assertEquals(5, historyStore.size());
+        assertRate("0.5", historyStore.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START + 4 * HOUR)));
+    }
+
+    @Test
+    void reopen_restoresSealedAndOpenSegments() throws Exception {
+        recordTestTables(new ExchangeRateHistoryStore(directory, 2));
+        // Simulate a crash half way through appending a segment
+        Files.write(directory.resolve("segments.bin"), new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        ExchangeRateHistoryStore reopened = new ExchangeRateHistoryStore(directory, 2);
+        reopened.record(getTestTable(START + 5 * HOUR, "1", "1"));
+
+        assertEquals(6, reopened.size());
+        assertRate("0.8", reopened.rateAsOf(CurrencyCode.USD, CurrencyCode.EUR, Instant.ofEpochSecond(START)));
+        assertRate("0.5", reopened.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START + 4 * HOUR)));
+        assertRate("1", reopened.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, Instant.ofEpochSecond(START + 5 * HOUR)));
+        assertEquals(6, new ExchangeRateHistoryStore(directory, 2).size());
+    }
+
+    @Test
+    void record_yearOfHourlyTablesStaysCompact() throws Exception {
+        ExchangeRateHistoryStore historyStore = new ExchangeRateHistoryStore(directory, 168);
+        int tables = 365 * 24;
+        for (int i = 0; i < tables; i++) {
+            historyStore.record(getTestTable(START + i * HOUR, getDriftingRate(i), "0.78"));
+        }
+
+        long bytes = Files.size(directory.resolve("segments.bin")) + Files.size(directory.resolve("open-segment.bin"));
+        assertEquals(tables, historyStore.size());
+        assertTrue(bytes < tables * 12L, "history takes " + bytes + " bytes");
+        assertRate(getDriftingRate(1_000), historyStore.rateAsOf(CurrencyCode.USD, CurrencyCode.EUR,
+                Instant.ofEpochSecond(START + 1_000 * HOUR + 30)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.service.ExchangeRateRefresher;
+import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExchangeRateRefresherTests {
+
+    @Mock
+    private CurrencyExchangeService currencyExchangeServiceMock;
+
+    @Mock
+    private TaskScheduler taskSchedulerMock;
+
+    private ExchangeRateRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new ExchangeRateRefresher(currencyExchangeServiceMock, taskSchedulerMock, true,
+                60_000, 30_000, 60_000, 3_600_000);
+    }
+
+    private ExchangeRateTable getTestTable(Instant nextUpdate) {
+        return ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(), 0, nextUpdate.getEpochSecond());
+    }
+
+    @Test
+    void delayUntilNextUpdate_followsUpstreamSchedule() {
+        Instant now = Instant.ofEpochSecond(1_700_000_000);
+
+        assertEquals(Duration.ofMinutes(21), refresher.delayUntilNextUpdate(getTestTable(now.plus(Duration.ofMinutes(20))), now));
+        assertEquals(Duration.ofMinutes(1), refresher.delayUntilNextUpdate(getTestTable(now.minus(Duration.ofHours(2))), now));
+        assertEquals(Duration.ofMinutes(54), refresher.delayUntilNextUpdate(getTestTable(now.plus(Duration.ofDays(1))), now));
+    }
+
+    @Test
+    void refresh_schedulesNextRunFromTable() {
+        when(currencyExchangeServiceMock.refreshExchangeRates()).thenReturn(getTestTable(Instant.now().plus(Duration.ofMinutes(30))));
+        ArgumentCaptor<Instant> nextRun = ArgumentCaptor.forClass(Instant.class);
+
+        refresher.refresh();
+
+        verify(taskSchedulerMock).schedule(any(Runnable.class), nextRun.capture());
+        long delayMinutes = Duration.between(Instant.now(), nextRun.getValue()).toMinutes();
+        assertTrue(delayMinutes >= 30 && delayMinutes <= 31);
+    }
+
+    @Test
+    void refresh_backsOffOnFailure() {
+        when(currencyExchangeServiceMock.refreshExchangeRates()).thenThrow(new CurrencyExchangeException(RETRIEVE_EXCHANGE_RATE_ERROR));
+        ArgumentCaptor<Instant> nextRun = ArgumentCaptor.forClass(Instant.class);
+
+        refresher.refresh();
+        refresher.refresh();
+
+        verify(taskSchedulerMock, times(2)).schedule(any(Runnable.class), nextRun.capture());
+        long secondDelay = Duration.between(Instant.now(), nextRun.getAllValues().get(1)).toSeconds();
+        assertTrue(secondDelay > 50 && secondDelay <= 60);
+    }
+}
@@ -0,0 +1,100 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.ExchangeRateTableRedisSerializer;
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.CurrencyExchangeResponse;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExchangeRateTableTests {
+
+    private ExchangeRateTable getTestTable() {
+        return ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(
+                CurrencyCode.EUR, new BigDecimal("0.8"),
+                CurrencyCode.GBP, new BigDecimal("0.5")), 1700000000L, 1700086400L);
+    }
+
+    @Test
+    void getRate_derivesCrossRateFromBase() {
+        ExchangeRateTable table = getTestTable();
+
+        assertEquals(0, new BigDecimal("0.8").compareTo(table.getRate(CurrencyCode.USD, CurrencyCode.EUR)));
+        assertEquals(0, new BigDecimal("1.6").compareTo(table.getRate(CurrencyCode.GBP, CurrencyCode.EUR)));
+        assertEquals(0, new BigDecimal("0.625").compareTo(table.getRate(CurrencyCode.EUR, CurrencyCode.GBP)));
+        assertEquals(BigDecimal.ONE, table.getRate(CurrencyCode.EUR, CurrencyCode.EUR));
+        assertEquals(1700086400L, table.getNextUpdateUnix());
+    }
+
+    @Test
+    void getRate_roundsAwayDivisionNoise() {
+        ExchangeRateTable table = ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(
+                CurrencyCode.EUR, new BigDecimal("0.6"),
+                CurrencyCode.GBP, new BigDecimal("0.51"),
+                CurrencyCode.JPY, new BigDecimal("0.7"),
+                CurrencyCode.CHF, new BigDecimal("0.2")), 1700000000L, 1700086400L);
+
+        assertEquals(new BigDecimal("0.85"), table.getRate(CurrencyCode.EUR, CurrencyCode.GBP));
+        assertEquals(new BigDecimal("3.5"), table.getRate(CurrencyCode.CHF, CurrencyCode.JPY));
+        assertEquals(new BigDecimal("1.16666666667"), table.getRate(CurrencyCode.EUR, CurrencyCode.JPY));
+        assertEquals(new BigDecimal("5"), ExchangeRateTable.toDecimalRate(5.0));
+    }
+
+    @Test
+    void getRate_unknownCurrency() {
+        ExchangeRateTable table = getTestTable();
+
+        assertFalse(table.supports(CurrencyCode.JPY));
+        assertThrows(CurrencyExchangeException.class, () -> table.getRate(CurrencyCode.EUR, CurrencyCode.JPY));
+    }
+
+    @Test
+    void deserializer_streamsRatesAndSkipsUnknownCodes() throws Exception {
+        String json = """
+                {"result":"success","time_last_update_unix":1700000000,"time_next_update_unix":1700086400,
+                 "base_code":"USD","rates":{"USD":1,"EUR":0.8,"XYZ":12.5,"GBP":0.5}}
+                """;
+
+        CurrencyExchangeResponse response = new ObjectMapper().readValue(json, CurrencyExchangeResponse.class);
+        ExchangeRateTable table = ExchangeRateTable.of(CurrencyCode.USD, response.getRates(),
+                response.getTimeLastUpdateUnix(), response.getTimeNextUpdateUnix());
+
+        assertEquals(0.8, table.ratePerBase(CurrencyCode.EUR));
+        assertEquals(0.5, table.ratePerBase(CurrencyCode.GBP));
+        assertFalse(table.supports(CurrencyCode.JPY));
+        assertEquals(1700086400L, table.getNextUpdateUnix());
+    }
+
+    @Test
+    void redisSerializer_roundTripsTable() {
+        ExchangeRateTableRedisSerializer serializer = new ExchangeRateTableRedisSerializer();
+        UUID snapshotId = UUID.randomUUID();
+        ExchangeRateTable table = getTestTable().withSnapshotId(snapshotId);
+
+        byte[] payload = serializer.serialize(table);
+        ExchangeRateTable restored = serializer.deserialize(payload);
+
+        assertEquals(1 + 3 + 32 + 2 + 3 * 11, payload.length);
+        assertEquals(snapshotId, restored.getSnapshotId());
+        assertEquals(CurrencyCode.USD, restored.getBaseCurrency());
+        assertEquals(table.rate(CurrencyCode.GBP, CurrencyCode.EUR), restored.rate(CurrencyCode.GBP, CurrencyCode.EUR));
+        assertEquals(table.getLastUpdateUnix(), restored.getLastUpdateUnix());
+        assertFalse(restored.supports(CurrencyCode.JPY));
+    }
+
+    @Test
+    void redisSerializer_unknownFormatIsCacheMiss() {
+        ExchangeRateTableRedisSerializer serializer = new ExchangeRateTableRedisSerializer();
+        byte[] payload = serializer.serialize(getTestTable());
+        payload[0] = (byte) 0xAC;
+
+        assertNull(serializer.deserialize(payload));
+    }
+}
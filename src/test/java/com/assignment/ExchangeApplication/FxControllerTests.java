@@ -0,0 +1,162 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.controller.FxController;
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.exceptions.CurrencyExchangeException;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
+import com.assignment.ExchangeApplication.model.dto.ConversionResult;
+import com.assignment.ExchangeApplication.model.dto.HistoricalRate;
+import com.assignment.ExchangeApplication.service.ExchangeRateHistoryStore;
+import com.assignment.ExchangeApplication.service.FxConversionServiceImpl;
+import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.HISTORICAL_RATE_NOT_FOUND_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.INVALID_CONVERSION_ITEM_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.RETRIEVE_EXCHANGE_RATE_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FxControllerTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CurrencyExchangeService currencyExchangeServiceMock;
+
+    @Mock
+    private ExchangeRateHistoryStore historyStoreMock;
+
+    private FxController fxController;
+
+    @BeforeEach
+    void setUp() {
+        fxController = new FxController(historyStoreMock, currencyExchangeServiceMock,
+                new FxConversionServiceImpl(objectMapper), objectMapper);
+    }
+
+    private ExchangeRateTable getTestTable() {
+        return ExchangeRateTable.fromRates(CurrencyCode.USD, Map.of(
+                CurrencyCode.EUR, new BigDecimal("0.8"),
+                CurrencyCode.GBP, new BigDecimal("0.5")), 1700000000L, 1700086400L);
+    }
+
+    private String readBody(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private ResponseEntity<StreamingResponseBody> convert(String items) {
+        return fxController.convert(new ByteArrayInputStream(items.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void convert_streamsOneResultPerItem() throws Exception {
+        when(currencyExchangeServiceMock.getExchangeRates()).thenReturn(getTestTable());
+
+        ResponseEntity<StreamingResponseBody> response = convert("""
+                [{"amount":100,"from":"EUR","to":"GBP"},
+                 {"amount":10,"from":"GBP","to":"USD"},
+                 {"amount":5,"from":"EUR","to":"JPY"},
+                 {"amount":5,"from":"EUR","to":"XYZ"},
+                 {"amount":1,"from":"EUR","to":"GBP"}]
+                """);
+        List<ConversionResult> results = objectMapper.readValue(readBody(response), new TypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5, results.size());
+        assertEquals(0, new BigDecimal("62.5").compareTo(results.get(0).getConvertedAmount()));
+        assertEquals(0, new BigDecimal("20").compareTo(results.get(1).getConvertedAmount()));
+        assertEquals(RETRIEVE_EXCHANGE_RATE_ERROR, results.get(2).getError());
+        assertEquals(INVALID_CONVERSION_ITEM_ERROR, results.get(3).getError());
+        assertEquals(0, new BigDecimal("0.625").compareTo(results.get(4).getRate()));
+        verify(currencyExchangeServiceMock, times(1)).getExchangeRates();
+    }
+
+    @Test
+    void convert_badlyTypedItemFailsOnlyItself() throws Exception {
+        when(currencyExchangeServiceMock.getExchangeRates()).thenReturn(getTestTable());
+
+        ResponseEntity<StreamingResponseBody> response = convert("""
+                [{"amount":100,"from":"EUR","to":"GBP"},
+                 {"amount":"abc","from":"EUR","to":"GBP"},
+                 {"amount":{"nested":[1,2]},"from":"EUR","to":"GBP"},
+                 {"amount":1,"from":"EUR","to":"GBP"}]
+                """);
+        List<ConversionResult> results = objectMapper.readValue(readBody(response), new TypeReference<>() {});
+
+        assertEquals(4, results.size());
+        assertEquals(0, new BigDecimal("62.5").compareTo(results.get(0).getConvertedAmount()));
+        assertEquals(INVALID_CONVERSION_ITEM_ERROR, results.get(1).getError());
+        assertEquals(INVALID_CONVERSION_ITEM_ERROR, results.get(2).getError());
+        assertEquals(0, new BigDecimal("0.625").compareTo(results.get(3).getConvertedAmount()));
+    }
+
+    @Test
+    void convert_manyItemsInOneRequest() throws Exception {
+        when(currencyExchangeServiceMock.getExchangeRates()).thenReturn(getTestTable());
+        StringBuilder items = new StringBuilder("[");
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"amount\":").append(i).append(",\"from\":\"USD\",\"to\":\"EUR\"}");
+        }
+
+        String body = readBody(convert(items.append("]").toString()));
+        List<ConversionResult> results = objectMapper.readValue(body, new TypeReference<>() {});
+
+        assertEquals(count, results.size());
+        assertEquals(0, new BigDecimal("15999.2").compareTo(results.get(count - 1).getConvertedAmount()));
+    }
+
+    @Test
+    void convert_exchangeRatesUnavailable_returnsServiceUnavailable() throws Exception {
+        when(currencyExchangeServiceMock.getExchangeRates()).thenThrow(new CurrencyExchangeException(RETRIEVE_EXCHANGE_RATE_ERROR));
+
+        ResponseEntity<StreamingResponseBody> response = convert("[]");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertTrue(readBody(response).contains(RETRIEVE_EXCHANGE_RATE_ERROR));
+    }
+
+    @Test
+    void getHistoricalRate_notRecorded_returnsNotFound() {
+        Instant at = Instant.ofEpochSecond(1700000000L);
+        when(historyStoreMock.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, at))
+                .thenThrow(new CurrencyExchangeException(HISTORICAL_RATE_NOT_FOUND_ERROR));
+
+        ResponseEntity<Object> response = fxController.getHistoricalRate(CurrencyCode.EUR, CurrencyCode.GBP, at);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getHistoricalRate_returnsRecordedRate() {
+        Instant at = Instant.ofEpochSecond(1700000000L);
+        HistoricalRate historicalRate = new HistoricalRate(CurrencyCode.EUR, CurrencyCode.GBP, at, at, new BigDecimal("0.625"));
+        when(historyStoreMock.rateAsOf(CurrencyCode.EUR, CurrencyCode.GBP, at)).thenReturn(historicalRate);
+
+        ResponseEntity<Object> response = fxController.getHistoricalRate(CurrencyCode.EUR, CurrencyCode.GBP, at);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(historicalRate, response.getBody());
+    }
+}
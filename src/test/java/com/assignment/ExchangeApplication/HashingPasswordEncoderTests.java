@@ -0,0 +1,87 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.HashingPasswordEncoder;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashingPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HashingPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void encode_usesCalibratedCostAndMatches() {
+        passwordEncoder = new HashingPasswordEncoder(meterRegistry, 1, 4, 1, 4);
+
+        String encoded = passwordEncoder.encode("TestPassword123");
+
+        assertEquals(4, passwordEncoder.getStrength());
+        assertTrue(encoded.startsWith("$2a$04$"));
+        assertTrue(passwordEncoder.matches("TestPassword123", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(1, meterRegistry.get("security.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("security.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_calibratesCostUpToTargetLatency() {
+        passwordEncoder = new HashingPasswordEncoder(meterRegistry, 1, 4, 10_000, 4);
+
+        assertTrue(passwordEncoder.getStrength() > 4);
+    }
+
+    @Test
+    void upgradeEncoding_onlyWhenStoredCostIsLower() {
+        passwordEncoder = new HashingPasswordEncoder(meterRegistry, 1, 4, 1, 5);
+
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("TestPassword123")));
+        assertFalse(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("TestPassword123")));
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("TestPassword123")));
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void encode_refusedOnceQueueIsFull() throws Exception {
+        passwordEncoder = new HashingPasswordEncoder(meterRegistry, 1, 1, 1, 12);
+        int callers = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> passwordEncoder.encode("TestPassword123")));
+            }
+            int refused = 0;
+            for (Future<String> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    assertInstanceOf(PasswordHashingUnavailableException.class, e.getCause());
+                    assertEquals(1, ((PasswordHashingUnavailableException) e.getCause()).getRetryAfterSeconds());
+                    refused++;
+                }
+            }
+
+            assertTrue(refused > 0);
+            assertEquals(refused, meterRegistry.get("security.password.hashing.rejected").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
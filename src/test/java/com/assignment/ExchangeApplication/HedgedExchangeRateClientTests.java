@@ -0,0 +1,139 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.enums.CurrencyCode;
+import com.assignment.ExchangeApplication.model.FetchedExchangeRates;
+import com.assignment.ExchangeApplication.service.HedgedExchangeRateClient;
+import com.assignment.ExchangeApplication.service.HttpExchangeRateProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgedExchangeRateClientTests {
+
+    private static final String RATES_RESPONSE = """
+            {"result":"success","time_last_update_unix":1700000000,"time_next_update_unix":1700086400,
+             "base_code":"USD","rates":{"USD":1,"EUR":%s}}
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<HttpServer> servers = new ArrayList<>();
+    private HedgedExchangeRateClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        servers.forEach(server -> server.stop(0));
+    }
+
+    private HttpExchangeRateProvider startProvider(String name, int order, long delayMillis, int status, String eurRate) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v6/latest/USD", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = RATES_RESPONSE.formatted(eurRate).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return new HttpExchangeRateProvider(name, new RestTemplateBuilder(), httpClient,
+                "http://localhost:" + server.getAddress().getPort(), Duration.ofSeconds(5), order);
+    }
+
+    @Test
+    void fetch_slowPrimaryIsHedgedBySecondary() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 2_000, 200, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 0, 200, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 100, 50);
+
+        long start = System.nanoTime();
+        FetchedExchangeRates fetched = client.fetch(CurrencyCode.USD, null);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_500);
+        assertEquals("secondary", fetched.provider());
+        assertEquals(0.9, fetched.table().ratePerBase(CurrencyCode.EUR));
+        assertEquals(1, meterRegistry.get("exchange.provider.hedges").counter().count());
+    }
+
+    @Test
+    void fetch_fastPrimaryIsNotHedged() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 0, 200, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 0, 200, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 1_000, 50);
+
+        FetchedExchangeRates fetched = client.fetch(CurrencyCode.USD, null);
+
+        assertEquals("primary", fetched.provider());
+        assertNull(meterRegistry.find("exchange.provider.hedges").counter());
+    }
+
+    @Test
+    void fetch_failingPrimaryFailsOverImmediately() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 0, 500, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 0, 200, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 5_000, 50);
+
+        long start = System.nanoTime();
+        FetchedExchangeRates fetched = client.fetch(CurrencyCode.USD, null);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+        assertEquals("secondary", fetched.provider());
+        assertEquals(1, meterRegistry.get("exchange.provider.failures").tag("provider", "primary").counter().count());
+    }
+
+    @Test
+    void fetch_failedPrimaryStillShapesTheHedgeDelay() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 200, 500, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 0, 200, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 5_000, 50);
+
+        client.fetch(CurrencyCode.USD, null);
+
+        double hedgeDelay = meterRegistry.get("exchange.hedge.delay").gauge().value();
+        assertTrue(hedgeDelay >= 200 && hedgeDelay < 5_000);
+    }
+
+    @Test
+    void fetch_consistentlySlowPrimaryKeepsTheHedgeDelayBounded() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 3_000, 200, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 50, 200, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 100, 50);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("secondary", client.fetch(CurrencyCode.USD, null).provider());
+        }
+        Thread.sleep(100);
+
+        assertEquals(100, meterRegistry.get("exchange.hedge.delay").gauge().value());
+        assertEquals(10, meterRegistry.get("exchange.provider.hedges").counter().count());
+    }
+
+    @Test
+    void fetch_allProvidersFailing() throws Exception {
+        HttpExchangeRateProvider primary = startProvider("primary", 0, 0, 500, "0.8");
+        HttpExchangeRateProvider secondary = startProvider("secondary", 1, 0, 503, "0.9");
+        client = new HedgedExchangeRateClient(List.of(primary, secondary), meterRegistry, 100, 50);
+
+        assertThrows(RuntimeException.class, () -> client.fetch(CurrencyCode.USD, null));
+    }
+}
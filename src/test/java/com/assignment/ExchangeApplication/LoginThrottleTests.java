@@ -0,0 +1,193 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.LoginThrottle;
+import com.assignment.ExchangeApplication.configuration.LoginThrottleFilter;
+import com.assignment.ExchangeApplication.configuration.PasswordHashingEntryPoint;
+import com.assignment.ExchangeApplication.exceptions.PasswordHashingUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.Servlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.PASSWORD_HASHING_UNAVAILABLE_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LoginThrottleTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottle loginThrottle = new LoginThrottle(meterRegistry, 200, 3, 5, 4, 8, 100);
+
+    private MockHttpServletRequest getBasicAuthRequest(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/client/");
+        request.addHeader("Authorization", "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":wrong").getBytes(StandardCharsets.UTF_8)));
+        return request;
+    }
+
+    @Test
+    void tryAcquire_refusedAfterUsernameFailureLimitUntilWindowSlidesPast() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+            loginThrottle.recordFailure("johndoe", "10.0.0.1");
+        }
+
+        assertFalse(loginThrottle.tryAcquire("johndoe", "10.0.0.2"));
+        assertTrue(loginThrottle.tryAcquire("janedoe", "10.0.0.1"));
+        Thread.sleep(450);
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+        assertEquals(1, meterRegistry.get("security.login.throttled").tag("scope", "username").counter().count());
+        assertEquals(3, meterRegistry.get("security.login.failures").counter().count());
+    }
+
+    @Test
+    void tryAcquire_refusedAfterAddressFailureLimitAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(loginThrottle.tryAcquire("user" + i, "10.0.0.1"));
+            loginThrottle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertFalse(loginThrottle.tryAcquire("someone-else", "10.0.0.1"));
+        assertTrue(loginThrottle.tryAcquire("someone-else", "10.0.0.2"));
+        assertEquals(1, meterRegistry.get("security.login.throttled").tag("scope", "address").counter().count());
+    }
+
+    @Test
+    void tryAcquire_successfulAttemptsNeverUseUpTheFailureLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+            loginThrottle.recordSuccess("johndoe", "10.0.0.1");
+            loginThrottle.recordSuccess("johndoe", "10.0.0.1");
+        }
+
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+        assertThrows(Exception.class, () -> meterRegistry.get("security.login.throttled").counter());
+    }
+
+    @Test
+    void tryAcquire_concurrentBurstIsCutOffAtTheInFlightLimit() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 40; i++) {
+            String address = "10.0.0." + i;
+            executor.submit(() -> {
+                start.await();
+                if (loginThrottle.tryAcquire("johndoe", address)) {
+                    granted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(4, granted.get());
+    }
+
+    @Test
+    void release_givesBackTheInFlightSlotWithoutCountingAFailure() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+        }
+        assertFalse(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+
+        loginThrottle.release("johndoe", "10.0.0.1");
+
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+    }
+
+    @Test
+    void recordSuccess_clearsUsernameFailuresButNotAddressFailures() {
+        for (int i = 0; i < 2; i++) {
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+            loginThrottle.recordFailure("johndoe", "10.0.0.1");
+        }
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+        loginThrottle.recordSuccess("johndoe", "10.0.0.1");
+        for (int i = 0; i < 2; i++) {
+            assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+            loginThrottle.recordFailure("johndoe", "10.0.0.1");
+        }
+
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+        loginThrottle.recordFailure("johndoe", "10.0.0.1");
+        assertFalse(loginThrottle.tryAcquire("janedoe", "10.0.0.1"));
+    }
+
+    @Test
+    void filter_rejectsThrottledBasicAuthBeforeAuthentication() throws Exception {
+        // A window long enough that a slow first run cannot let the failures slide out of it
+        LoginThrottle longWindowThrottle = new LoginThrottle(meterRegistry, 60_000, 3, 5, 4, 8, 100);
+        LoginThrottleFilter filter = new LoginThrottleFilter(longWindowThrottle, new ObjectMapper());
+        FilterChain failingAuthentication = (request, response) -> ((MockHttpServletResponse) response).setStatus(401);
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(getBasicAuthRequest("johndoe"), new MockHttpServletResponse(), failingAuthentication);
+        }
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(getBasicAuthRequest("johndoe"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader("Retry-After"));
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void filter_settlesTheAttemptWhenTheChainThrows() throws Exception {
+        LoginThrottleFilter filter = new LoginThrottleFilter(loginThrottle, new ObjectMapper());
+        FilterChain throwingChain = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () ->
+                    filter.doFilter(getBasicAuthRequest("johndoe"), new MockHttpServletResponse(), throwingChain));
+        }
+
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+    }
+
+    @Test
+    void filter_saturatedHashingAnswers503WithoutCountingAFailure() throws Exception {
+        AuthenticationManager saturatedHashing = authentication -> {
+            throw new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE_ERROR, 4);
+        };
+        PasswordHashingEntryPoint entryPoint = new PasswordHashingEntryPoint(
+                new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED), new ObjectMapper());
+        LoginThrottleFilter filter = new LoginThrottleFilter(loginThrottle, new ObjectMapper());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        for (int i = 0; i < 4; i++) {
+            response = new MockHttpServletResponse();
+            filter.doFilter(getBasicAuthRequest("johndoe"), response,
+                    new MockFilterChain(mock(Servlet.class),
+                            new BasicAuthenticationFilter(saturatedHashing, entryPoint)));
+        }
+
+        assertEquals(503, response.getStatus());
+        assertEquals("4", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains(PASSWORD_HASHING_UNAVAILABLE_ERROR));
+        assertNull(meterRegistry.find("security.login.failures").counter());
+        assertTrue(loginThrottle.tryAcquire("johndoe", "10.0.0.1"));
+    }
+}
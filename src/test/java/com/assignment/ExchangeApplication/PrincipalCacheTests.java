@@ -0,0 +1,89 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.CacheInvalidationBus;
+import com.assignment.ExchangeApplication.configuration.PrincipalCache;
+import com.assignment.ExchangeApplication.enums.UserRole;
+import com.assignment.ExchangeApplication.model.Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PrincipalCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationBus invalidationBus;
+    private PrincipalCache principalCache;
+    private UserDetailsService userDetailsServiceMock;
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "deprecation"})
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        invalidationBus = new CacheInvalidationBus(mock(RedisTemplate.class), meterRegistry);
+        principalCache = new PrincipalCache(invalidationBus, meterRegistry, 100, 60_000);
+        userDetailsServiceMock = mock(UserDetailsService.class);
+        authenticationProvider = new DaoAuthenticationProvider(userDetailsServiceMock);
+        authenticationProvider.setPasswordEncoder(NoOpPasswordEncoder.getInstance());
+        authenticationProvider.setUserCache(principalCache);
+    }
+
+    private Client getTestClient(String password) {
+        return new Client(UUID.randomUUID(), "john.doe@example.com", password, "John Doe", "johndoe", new Date(),
+                List.of(new SimpleGrantedAuthority(UserRole.USER.toString())), UserRole.USER);
+    }
+
+    private void authenticate(String password) {
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("johndoe", password));
+    }
+
+    @Test
+    void authenticate_repeatedRequestsLoadClientOnce() {
+        when(userDetailsServiceMock.loadUserByUsername("johndoe")).thenReturn(getTestClient("secret"));
+
+        authenticate("secret");
+        authenticate("secret");
+        authenticate("secret");
+
+        verify(userDetailsServiceMock, times(1)).loadUserByUsername("johndoe");
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void authenticate_stalePasswordIsReloadedBeforeRejecting() {
+        when(userDetailsServiceMock.loadUserByUsername("johndoe"))
+                .thenReturn(getTestClient("old"), getTestClient("new"));
+
+        authenticate("old");
+        authenticate("new");
+
+        verify(userDetailsServiceMock, times(2)).loadUserByUsername("johndoe");
+    }
+
+    @Test
+    void remoteInvalidation_dropsCachedPrincipal() {
+        principalCache.putUserInCache(getTestClient("secret"));
+        String body = "other-node\n" + CacheInvalidationBus.CLIENTS_REGION + "\njohndoe";
+
+        invalidationBus.onMessage(new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(principalCache.getUserFromCache("johndoe"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.RateLimitFilter;
+import com.assignment.ExchangeApplication.configuration.RateLimiter;
+import com.assignment.ExchangeApplication.configuration.TokenBucket;
+import com.assignment.ExchangeApplication.model.Client;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class RateLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplateMock = mock(RedisTemplate.class);
+
+    private RateLimiter getRateLimiter(boolean redisEnabled) {
+        return new RateLimiter(meterRegistry, redisTemplateMock, 10, 5, 2, 1, 100, redisEnabled);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenBucket_allowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(2, bucket.tryConsume(0));
+        assertEquals(1, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(-1, bucket.tryConsume(0));
+        assertEquals(-1, bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(400)));
+        assertEquals(0, bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(500)));
+        assertEquals(2, bucket.tryConsume(TimeUnit.SECONDS.toNanos(60)));
+    }
+
+    @Test
+    void tokenBucket_concurrentConsumersNeverOverdraw() throws Exception {
+        TokenBucket bucket = new TokenBucket(1_000, 0, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryConsume(0) >= 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, granted.get());
+    }
+
+    @Test
+    void tryAcquire_limitsEachClientAndGroupSeparately() {
+        RateLimiter rateLimiter = getRateLimiter(false);
+
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-a").allowed());
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-a").allowed());
+        RateLimiter.Decision limited = rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-a");
+
+        assertFalse(limited.allowed());
+        assertEquals(2, limited.limit());
+        assertEquals(0, limited.remaining());
+        assertEquals(1, limited.retryAfterSeconds());
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-b").allowed());
+        assertEquals(9, rateLimiter.tryAcquire(RateLimiter.Group.READS, "client-a").remaining());
+        assertEquals(1, meterRegistry.get("rate.limit.requests").tag("group", "writes").tag("outcome", "limited")
+                .counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tryAcquire_usesSharedBucketAndFallsBackWhenRedisFails() {
+        RateLimiter rateLimiter = getRateLimiter(true);
+        when(redisTemplateMock.execute(any(), any(), any(), anyList(), any(Object[].class))).thenReturn(-1L);
+
+        assertFalse(rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-a").allowed());
+        verify(redisTemplateMock).execute(any(), any(), any(), eq(List.of("rate-limit:writes:client-a")), any(Object[].class));
+
+        when(redisTemplateMock.execute(any(), any(), any(), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.Group.WRITES, "client-a").allowed());
+        assertEquals(1, meterRegistry.get("rate.limit.redis.failures").counter().count());
+    }
+
+    @Test
+    void filter_addsHeadersAndRejectsOnceLimited() throws Exception {
+        Client client = new Client();
+        client.setId(UUID.randomUUID());
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(client, null, List.of()));
+        RateLimitFilter filter = new RateLimitFilter(getRateLimiter(false), new ObjectMapper());
+
+        MockHttpServletResponse allowed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/transfer"), allowed, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/transfer"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/transfer"), limited, chain);
+
+        assertEquals(200, allowed.getStatus());
+        assertEquals("2", allowed.getHeader("RateLimit-Limit"));
+        assertEquals("1", allowed.getHeader("RateLimit-Remaining"));
+        assertEquals("1", allowed.getHeader("RateLimit-Reset"));
+        assertEquals(429, limited.getStatus());
+        assertEquals("0", limited.getHeader("RateLimit-Remaining"));
+        assertEquals("1", limited.getHeader("Retry-After"));
+        verify(chain, never()).doFilter(any(), any());
+    }
+}
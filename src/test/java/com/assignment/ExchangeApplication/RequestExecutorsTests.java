@@ -0,0 +1,197 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.AdaptiveConcurrencyLimiter;
+import com.assignment.ExchangeApplication.configuration.ConcurrencyLimitFilter;
+import com.assignment.ExchangeApplication.configuration.ConnectionShareDataSource;
+import com.assignment.ExchangeApplication.configuration.RequestExecutors;
+import com.assignment.ExchangeApplication.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.REQUEST_TIMEOUT_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestExecutorsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestExecutors requestExecutors = new RequestExecutors(meterRegistry, 1, 1, 1_000, 2, 1, 1_000, 4);
+
+    @AfterEach
+    void tearDown() {
+        requestExecutors.shutdown();
+    }
+
+    @Test
+    void constructor_rejectsPoolsThatLeaveNoConnectionForOtherRequests() {
+        assertThrows(IllegalStateException.class, () -> new RequestExecutors(meterRegistry, 4, 1, 1_000, 8, 1, 1_000, 10));
+        assertThrows(IllegalStateException.class, () -> new RequestExecutors(meterRegistry, 4, 1, 1_000, 6, 1, 1_000, 10));
+    }
+
+    @Test
+    void task_saturatedReadsDoNotAffectWrites() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = submit(RequestExecutors.Pool.READS, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        Future<?> queued = submit(RequestExecutors.Pool.READS, release);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(TaskRejectedException.class, () -> submit(RequestExecutors.Pool.READS, release));
+        assertEquals("written", submit(RequestExecutors.Pool.WRITES, () -> "written").get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("request.executor.rejected").tag("pool", "reads").counter().count());
+        assertEquals(0, meterRegistry.get("request.executor.rejected").tag("pool", "writes").counter().count());
+        assertEquals(1.0, meterRegistry.get("request.executor.saturation").tag("pool", "reads").gauge().value());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void task_timeoutAnswers504WithoutInterruptingTheWork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        WebAsyncTask<ResponseEntity<String>> task = requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return ResponseEntity.ok("committed");
+        });
+
+        Object timeoutResult = timeOut(task, started);
+        release.countDown();
+
+        assertEquals(1_000L, task.getTimeout());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((ResponseEntity<?>) timeoutResult).getStatusCode());
+        assertEquals(REQUEST_TIMEOUT_ERROR, ((ErrorResponse) ((ResponseEntity<?>) timeoutResult).getBody()).getError());
+        assertEquals(1, meterRegistry.get("request.executor.timeouts").tag("pool", "writes").counter().count());
+        awaitCompletedWrite();
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    void task_writeCommittingAfterTimeoutIsNotAnsweredAsRetryable() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean committed = new AtomicBoolean();
+        WebAsyncTask<ResponseEntity<String>> task = requestExecutors.task(RequestExecutors.Pool.WRITES, () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            committed.set(true);
+            return ResponseEntity.ok("committed");
+        });
+
+        ResponseEntity<?> timeoutResult = (ResponseEntity<?>) timeOut(task, started);
+        release.countDown();
+        awaitCompletedWrite();
+
+        assertTrue(committed.get());
+        assertNotEquals(HttpStatus.SERVICE_UNAVAILABLE, timeoutResult.getStatusCode());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, timeoutResult.getStatusCode());
+        assertFalse(timeoutResult.getHeaders().containsKey("Retry-After"));
+    }
+
+    @Test
+    void connectionShares_limitOtherThreadsToWhatTheExecutorsLeave() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionShareDataSource dataSource = new ConnectionShareDataSource(pool,
+                RequestExecutors.sharedConnections(4, 1, 2), 50);
+
+        Connection shared = dataSource.getConnection();
+        assertThrows(SQLException.class, dataSource::getConnection);
+        List<Connection> executorConnections = List.of(
+                submit(RequestExecutors.Pool.WRITES, dataSource::getConnection).get(5, TimeUnit.SECONDS),
+                submit(RequestExecutors.Pool.READS, dataSource::getConnection).get(5, TimeUnit.SECONDS));
+        shared.close();
+        shared.close();
+
+        assertEquals(2, executorConnections.size());
+        assertEquals(1, dataSource.getAvailableSharedConnections());
+        dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailableSharedConnections());
+    }
+
+    @Test
+    void filter_holdsPermitUntilAsyncRequestCompletes() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 1, 1, 10, 1.5, 0.2);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, new ObjectMapper(), 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transaction/transfer");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> servletRequest.startAsync());
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transaction/deposit"), shed, (servletRequest, servletResponse) -> { });
+        int inFlightBeforeCompletion = limiter.getInFlight();
+        request.getAsyncContext().complete();
+
+        assertEquals(503, shed.getStatus());
+        assertEquals(1, inFlightBeforeCompletion);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private Object timeOut(WebAsyncTask<?> task, CountDownLatch started) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transaction/transfer");
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        asyncManager.startCallableProcessing(task);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        return asyncManager.getConcurrentResult();
+    }
+
+    private void awaitCompletedWrite() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestExecutors.getExecutor(RequestExecutors.Pool.WRITES).getCompletedTaskCount() == 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private Future<?> submit(RequestExecutors.Pool pool, CountDownLatch release) {
+        return submit(pool, () -> release.await(5, TimeUnit.SECONDS));
+    }
+
+    private <T> Future<T> submit(RequestExecutors.Pool pool, Callable<T> work) {
+        WebAsyncTask<T> task = requestExecutors.task(pool, work);
+        return task.getExecutor().submit(work);
+    }
+}
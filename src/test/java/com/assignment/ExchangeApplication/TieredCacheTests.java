@@ -0,0 +1,134 @@
+package com.assignment.ExchangeApplication;
+
+import com.assignment.ExchangeApplication.configuration.CacheInvalidationBus;
+import com.assignment.ExchangeApplication.configuration.TieredCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TieredCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCache sharedCache;
+    private RedisTemplate<String, Object> redisTemplateMock;
+    private CacheInvalidationBus invalidationBus;
+    private TieredCache tieredCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sharedCache = new ConcurrentMapCache("exchangeRatesCache", false);
+        redisTemplateMock = mock(RedisTemplate.class);
+        invalidationBus = new CacheInvalidationBus(redisTemplateMock, meterRegistry);
+        tieredCache = new TieredCache(sharedCache, invalidationBus, meterRegistry, 10, Duration.ofMinutes(5));
+    }
+
+    private Message getInvalidationMessage(String nodeId, String key) {
+        String body = nodeId + "\n" + CacheInvalidationBus.cacheRegion("exchangeRatesCache") + "\n" + key;
+        return new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double count(String name, String tier, String result) {
+        var search = meterRegistry.get(name).tag("tier", tier);
+        return (result != null ? search.tag("result", result) : search).counter().count();
+    }
+
+    @Test
+    void get_promotesSharedHitToLocalTier() {
+        sharedCache.put("key", "value");
+
+        assertEquals("value", tieredCache.get("key").get());
+        sharedCache.evict("key");
+        assertEquals("value", tieredCache.get("key").get());
+
+        assertEquals(1, count("cache.tier.gets", "l1", "hit"));
+        assertEquals(1, count("cache.tier.gets", "l1", "miss"));
+        assertEquals(1, count("cache.tier.gets", "l2", "hit"));
+        assertEquals(0, count("cache.tier.gets", "l2", "miss"));
+    }
+
+    @Test
+    void get_missOnBothTiers() {
+        assertNull(tieredCache.get("key"));
+
+        assertEquals(1, count("cache.tier.gets", "l2", "miss"));
+    }
+
+    @Test
+    void putAndEvict_applyToBothTiers() {
+        tieredCache.put("key", "value");
+        assertEquals("value", sharedCache.get("key").get());
+
+        tieredCache.evict("key");
+
+        assertNull(sharedCache.get("key"));
+        assertNull(tieredCache.get("key"));
+        assertEquals(1, count("cache.tier.evictions", "l2", null));
+    }
+
+    @Test
+    void localTier_isBounded() {
+        TieredCache smallCache = new TieredCache(sharedCache, invalidationBus, meterRegistry, 1, Duration.ofMinutes(5));
+        smallCache.put("first", "value");
+        smallCache.put("second", "value");
+        ((Cache<?, ?>) smallCache.getNativeCache()).cleanUp();
+
+        assertEquals(1, ((Cache<?, ?>) smallCache.getNativeCache()).estimatedSize());
+        assertEquals(1, count("cache.tier.evictions", "l1", null));
+    }
+
+    @Test
+    void put_broadcastsInvalidationToOtherNodes() {
+        tieredCache.put("cross-rates:USD", "value");
+
+        verify(redisTemplateMock).convertAndSend(CacheInvalidationBus.CHANNEL,
+                invalidationBus.getNodeId() + "\ncache:exchangeRatesCache\ncross-rates:USD");
+    }
+
+    @Test
+    void remoteInvalidation_dropsLocalCopyOnly() {
+        tieredCache.put("cross-rates:USD", "old");
+        sharedCache.put("cross-rates:USD", "new");
+
+        invalidationBus.onMessage(getInvalidationMessage(invalidationBus.getNodeId(), "cross-rates:USD"), null);
+        assertEquals("old", tieredCache.get("cross-rates:USD").get());
+
+        invalidationBus.onMessage(getInvalidationMessage("other-node", "cross-rates:USD"), null);
+        assertEquals("new", tieredCache.get("cross-rates:USD").get());
+        assertEquals(1, meterRegistry.get("cache.invalidation.received").counter().count());
+    }
+
+    @Test
+    void remoteInvalidationDuringSharedRead_dropsThePromotion() {
+        ConcurrentMapCache racingSharedCache = new ConcurrentMapCache("exchangeRatesCache", false) {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper readBeforeUpdate = super.get(key);
+                // Another node writes the new value and its invalidation arrives before the promotion
+                super.put(key, "new");
+                invalidationBus.onMessage(getInvalidationMessage("other-node", String.valueOf(key)), null);
+                return readBeforeUpdate;
+            }
+        };
+        TieredCache racingCache = new TieredCache(racingSharedCache, invalidationBus, meterRegistry, 10, Duration.ofMinutes(5));
+        racingSharedCache.put("cross-rates:USD", "old");
+
+        assertEquals("old", racingCache.get("cross-rates:USD").get());
+
+        assertTrue(((Cache<?, ?>) racingCache.getNativeCache()).asMap().isEmpty());
+        assertEquals("new", racingCache.get("cross-rates:USD").get());
+    }
+}
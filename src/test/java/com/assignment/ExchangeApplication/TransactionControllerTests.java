@@ -1,24 +1,36 @@
 package com.assignment.ExchangeApplication;
 
+import com.assignment.ExchangeApplication.configuration.RequestExecutors;
 import com.assignment.ExchangeApplication.controller.TransactionController;
+import com.assignment.ExchangeApplication.enums.TransferStatus;
+import com.assignment.ExchangeApplication.exceptions.AccountLockTimeoutException;
 import com.assignment.ExchangeApplication.exceptions.NegativeAmountException;
 import com.assignment.ExchangeApplication.exceptions.PermissionDeniedException;
 import com.assignment.ExchangeApplication.model.ErrorResponse;
 import com.assignment.ExchangeApplication.model.dto.AccountResponseDto;
+import com.assignment.ExchangeApplication.model.dto.BatchTransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransactionRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferResult;
 import com.assignment.ExchangeApplication.service.interfaces.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.ACCOUNT_LOCK_TIMEOUT_ERROR;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.INSUFFICIENT_BALANCE_ERROR;
+import static com.assignment.ExchangeApplication.helpers.StatusMessages.TRANSFER_SUCCEEDED;
 import static com.assignment.ExchangeApplication.helpers.StatusMessages.UNAUTHORIZED_ACCOUNT_ERROR;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -33,9 +45,17 @@ public class TransactionControllerTests {
     @Mock
     private Authentication authenticationMock;
 
+    @Spy
+    private RequestExecutors requestExecutors = new RequestExecutors(new SimpleMeterRegistry(), 1, 1, 1_000, 1, 1, 1_000, 3);
+
     @InjectMocks
     private TransactionController transactionController;
 
+    @SuppressWarnings("unchecked")
+    private static <T> T call(WebAsyncTask<T> task) throws Exception {
+        return (T) task.getCallable().call();
+    }
+
     private TransactionRequest getTestTransactionRequest() {
         TransactionRequest request = new TransactionRequest();
         request.setAccountIban("LV23HABASAXMQ749DHCA1");
@@ -44,46 +64,59 @@ public class TransactionControllerTests {
     }
 
     @Test
-    void depositToAccount_successfulDeposit_returnsOk() {
+    void depositToAccount_successfulDeposit_returnsOk() throws Exception {
         TransactionRequest request = getTestTransactionRequest();
         AccountResponseDto responseDto = mock(AccountResponseDto.class);
         when(transactionService.depositAccount(authenticationMock, request)).thenReturn(responseDto);
 
-        ResponseEntity<AccountResponseDto> response = transactionController.depositToAccount(authenticationMock, request);
+        ResponseEntity<Object> response = call(transactionController.depositToAccount(authenticationMock, request));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(responseDto, response.getBody());
     }
 
     @Test
-    void depositToAccount_permissionDenied_returnsForbidden() {
+    void depositToAccount_permissionDenied_returnsForbidden() throws Exception {
         TransactionRequest request = getTestTransactionRequest();
         when(transactionService.depositAccount(authenticationMock, request)).thenThrow(new PermissionDeniedException("Denied"));
 
-        ResponseEntity<AccountResponseDto> response = transactionController.depositToAccount(authenticationMock, request);
+        ResponseEntity<Object> response = call(transactionController.depositToAccount(authenticationMock, request));
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNull(response.getBody());
     }
 
     @Test
-    void withdrawFromAccount_successfulWithdrawal_returnsOk() {
+    void depositToAccount_lockTimeout_returnsServiceUnavailable() throws Exception {
+        TransactionRequest request = getTestTransactionRequest();
+        when(transactionService.depositAccount(authenticationMock, request))
+                .thenThrow(new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR));
+
+        ResponseEntity<Object> response = call(transactionController.depositToAccount(authenticationMock, request));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals(ACCOUNT_LOCK_TIMEOUT_ERROR, ((ErrorResponse) response.getBody()).getError());
+    }
+
+    @Test
+    void withdrawFromAccount_successfulWithdrawal_returnsOk() throws Exception {
         TransactionRequest request = getTestTransactionRequest();
         AccountResponseDto responseDto = mock(AccountResponseDto.class);
         when(transactionService.withdrawAccount(authenticationMock, request)).thenReturn(responseDto);
 
-        ResponseEntity<Object> response = transactionController.withdrawFromAccount(authenticationMock, request);
+        ResponseEntity<Object> response = call(transactionController.withdrawFromAccount(authenticationMock, request));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(responseDto, response.getBody());
     }
 
     @Test
-    void withdrawFromAccount_permissionDenied_returnsForbidden() {
+    void withdrawFromAccount_permissionDenied_returnsForbidden() throws Exception {
         TransactionRequest request = getTestTransactionRequest();
         when(transactionService.withdrawAccount(authenticationMock, request)).thenThrow(new PermissionDeniedException(UNAUTHORIZED_ACCOUNT_ERROR));
 
-        ResponseEntity<Object> response = transactionController.withdrawFromAccount(authenticationMock, request);
+        ResponseEntity<Object> response = call(transactionController.withdrawFromAccount(authenticationMock, request));
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertInstanceOf(ErrorResponse.class, response.getBody());
@@ -93,11 +126,11 @@ public class TransactionControllerTests {
     }
 
     @Test
-    void withdrawFromAccount_negativeAmount_returnsBadRequest() {
+    void withdrawFromAccount_negativeAmount_returnsBadRequest() throws Exception {
         TransactionRequest request = getTestTransactionRequest();
         when(transactionService.withdrawAccount(authenticationMock, request)).thenThrow(new NegativeAmountException(INSUFFICIENT_BALANCE_ERROR));
 
-        ResponseEntity<Object> response = transactionController.withdrawFromAccount(authenticationMock, request);
+        ResponseEntity<Object> response = call(transactionController.withdrawFromAccount(authenticationMock, request));
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertInstanceOf(ErrorResponse.class, response.getBody());
@@ -105,4 +138,47 @@ public class TransactionControllerTests {
         assertEquals(HttpStatus.BAD_REQUEST, error.getHttpStatus());
         assertEquals(INSUFFICIENT_BALANCE_ERROR, error.getError());
     }
+
+    @Test
+    void withdrawFromAccount_lockTimeout_returnsServiceUnavailable() throws Exception {
+        TransactionRequest request = getTestTransactionRequest();
+        when(transactionService.withdrawAccount(authenticationMock, request))
+                .thenThrow(new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR));
+
+        ResponseEntity<Object> response = call(transactionController.withdrawFromAccount(authenticationMock, request));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertInstanceOf(ErrorResponse.class, response.getBody());
+        assertEquals(ACCOUNT_LOCK_TIMEOUT_ERROR, ((ErrorResponse) response.getBody()).getError());
+    }
+
+    @Test
+    void transferFundsInBatch_returnsResultPerTransfer() throws Exception {
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setTransfers(List.of(new TransferRequest(), new TransferRequest()));
+        List<TransferResult> transferResults = List.of(
+                new TransferResult(TransferStatus.SUCCESSFUL, TRANSFER_SUCCEEDED),
+                new TransferResult(TransferStatus.FAILED, INSUFFICIENT_BALANCE_ERROR));
+        when(transactionService.transferBatch(authenticationMock, batchTransferRequest)).thenReturn(transferResults);
+
+        ResponseEntity<List<TransferResult>> response = call(transactionController.transferFundsInBatch(authenticationMock, batchTransferRequest));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(transferResults, response.getBody());
+    }
+
+    @Test
+    void transferFundsInBatch_lockTimeoutAnswers503() throws Exception {
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setAtomic(true);
+        batchTransferRequest.setTransfers(List.of(new TransferRequest(), new TransferRequest()));
+        when(transactionService.transferBatch(authenticationMock, batchTransferRequest))
+                .thenThrow(new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR));
+
+        ResponseEntity<List<TransferResult>> response = call(transactionController.transferFundsInBatch(authenticationMock, batchTransferRequest));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        assertEquals(ACCOUNT_LOCK_TIMEOUT_ERROR, response.getBody().get(0).getMessage());
+    }
 }
@@ -3,28 +3,44 @@ package com.assignment.ExchangeApplication;
 import com.assignment.ExchangeApplication.enums.CurrencyCode;
 import com.assignment.ExchangeApplication.enums.TransferStatus;
 import com.assignment.ExchangeApplication.enums.TransferType;
+import com.assignment.ExchangeApplication.exceptions.AccountLockTimeoutException;
+import com.assignment.ExchangeApplication.exceptions.FailedAccountUpdateException;
 import com.assignment.ExchangeApplication.exceptions.NegativeAmountException;
 import com.assignment.ExchangeApplication.exceptions.PermissionDeniedException;
 import com.assignment.ExchangeApplication.model.Account;
 import com.assignment.ExchangeApplication.model.Client;
+import com.assignment.ExchangeApplication.model.ExchangeRateTable;
 import com.assignment.ExchangeApplication.model.Transaction;
+import com.assignment.ExchangeApplication.model.dto.AccountBalance;
 import com.assignment.ExchangeApplication.model.dto.AccountResponseDto;
+import com.assignment.ExchangeApplication.model.dto.BatchTransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransactionRequest;
+import com.assignment.ExchangeApplication.model.dto.TransferQuote;
+import com.assignment.ExchangeApplication.model.dto.TransferQuoteRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferRequest;
 import com.assignment.ExchangeApplication.model.dto.TransferResult;
 import com.assignment.ExchangeApplication.repository.TransactionRepository;
+import com.assignment.ExchangeApplication.service.AccountLockManager;
+import com.assignment.ExchangeApplication.service.TransferQuoteStore;
 import com.assignment.ExchangeApplication.service.TransactionServiceImpl;
 import com.assignment.ExchangeApplication.service.interfaces.AccountService;
 import com.assignment.ExchangeApplication.service.interfaces.CurrencyExchangeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -44,6 +60,12 @@ public class TransactionServiceTests {
     private TransactionRepository transactionRepositoryMock;
     @Mock
     private Authentication authenticationMock;
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+    @Spy
+    private AccountLockManager accountLockManager = new AccountLockManager(new SimpleMeterRegistry(), 16, 1000);
+    @Spy
+    private TransferQuoteStore transferQuoteStore = new TransferQuoteStore(100, 30);
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -87,23 +109,65 @@ public class TransactionServiceTests {
         return account;
     }
 
+    private Account getTestDestinationAccount() {
+        Account destinationAccount = new Account();
+        destinationAccount.setId(UUID.fromString("679a39db-28be-4633-a69a-37d33440e1ac"));
+        destinationAccount.setIban("LV18HABA4P32VIMESXWV6");
+        destinationAccount.setCurrency(CurrencyCode.GBP);
+        destinationAccount.setBalance(BigDecimal.valueOf(100));
+        destinationAccount.setClient(getUnauthorizedClient());
+        return destinationAccount;
+    }
+
+    private TransferRequest getTestTransferRequest(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setSourceAccountNumber(sourceAccount.getIban());
+        transferRequest.setDestinationAccountNumber(destinationAccount.getIban());
+        transferRequest.setAmount(amount);
+        transferRequest.setDescription("Batch transfer");
+        transferRequest.setDestinationCurrency(destinationAccount.getCurrency());
+        return transferRequest;
+    }
+
+    private AccountBalance getAccountBalance(Account account) {
+        return new AccountBalance() {
+            @Override
+            public BigDecimal getBalance() {
+                return account.getBalance();
+            }
+
+            @Override
+            public long getVersion() {
+                return account.getVersion();
+            }
+        };
+    }
+
+    private void runTransactionTemplateCallbacks() {
+        when(transactionTemplateMock.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
     @Test
     void withdrawAccount_successfulWithdrawal() {
+        runTransactionTemplateCallbacks();
         Client client = getTestClient();
         TransactionRequest transactionRequest = getTestTransactionRequest();
         Account account = getTestAccount();
         when(authenticationMock.getPrincipal()).thenReturn(client);
         when(accountServiceMock.getAccountByIban(transactionRequest.getAccountIban())).thenReturn(account);
+        when(accountServiceMock.debitAccount(account, transactionRequest.getAmount())).thenReturn(true);
 
         AccountResponseDto response = transactionService.withdrawAccount(authenticationMock, transactionRequest);
 
         assertEquals(new BigDecimal("100.2"), response.getBalance());
         verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
-        verify(accountServiceMock, times(1)).updateAccount(account);
+        verify(accountServiceMock, times(1)).debitAccount(account, transactionRequest.getAmount());
     }
 
     @Test
     void withdrawAccount_unauthorizedUser_throwsException() {
+        runTransactionTemplateCallbacks();
         TransactionRequest transactionRequest = getTestTransactionRequest();
         Account account = getTestAccount();
         Client unauthorizedClient = getUnauthorizedClient();
@@ -113,12 +177,13 @@ public class TransactionServiceTests {
 
         assertThrows(PermissionDeniedException.class, () ->
                 transactionService.withdrawAccount(authenticationMock, transactionRequest));
-        verify(accountServiceMock, never()).updateAccount(any());
+        verify(accountServiceMock, never()).debitAccount(any(), any());
         verify(transactionRepositoryMock, never()).save(any());
     }
 
     @Test
     void withdrawAccount_insufficientBalance_throwsException() {
+        runTransactionTemplateCallbacks();
         Client client = getTestClient();
         Account account = getTestAccount();
         TransactionRequest transactionRequest = getTestTransactionRequest();
@@ -129,9 +194,10 @@ public class TransactionServiceTests {
         when(authenticationMock.getPrincipal()).thenReturn(client);
         when(accountServiceMock.getAccountByIban(transactionRequest.getAccountIban())).thenReturn(account);
 
+        when(accountServiceMock.debitAccount(account, insufficientRequest.getAmount())).thenReturn(false);
+
         assertThrows(NegativeAmountException.class, () ->
                 transactionService.withdrawAccount(authenticationMock, insufficientRequest));
-        verify(accountServiceMock, never()).updateAccount(any());
         verify(transactionRepositoryMock, never()).save(any());
     }
 
@@ -154,12 +220,17 @@ public class TransactionServiceTests {
         when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
         when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
         when(authenticationMock.getPrincipal()).thenReturn(client);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        runTransactionTemplateCallbacks();
+        when(accountServiceMock.debitAccount(account, BigDecimal.valueOf(50))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
 
         TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
 
         assertEquals(TransferStatus.SUCCESSFUL, result.getTransferStatus());
         assertEquals(TRANSFER_SUCCEEDED, result.getMessage());
         verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
+        verify(accountLockManager, times(1)).lock(account.getIban(), destinationAccount.getIban());
     }
 
     @Test
@@ -184,13 +255,22 @@ public class TransactionServiceTests {
         when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
         when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
         when(authenticationMock.getPrincipal()).thenReturn(client);
-        when(currencyExchangeServiceMock.getExchangeRates(CurrencyCode.GBP)).thenReturn(exchangeRates);
+        UUID rateSnapshotId = UUID.fromString("0b4c7a0e-5d3f-4c53-9a55-2f1e8c6a7d10");
+        when(currencyExchangeServiceMock.getExchangeRates())
+                .thenReturn(ExchangeRateTable.fromRates(CurrencyCode.GBP, exchangeRates, 0, 0).withSnapshotId(rateSnapshotId));
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        runTransactionTemplateCallbacks();
+        when(accountServiceMock.debitAccount(account, new BigDecimal("58.767200"))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
 
         TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
 
         assertEquals(TransferStatus.SUCCESSFUL, result.getTransferStatus());
         assertEquals(TRANSFER_SUCCEEDED, result.getMessage());
-        verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
+        verify(transactionRepositoryMock, times(1)).save(argThat(transaction -> rateSnapshotId.equals(transaction.getRateSnapshotId())));
+        InOrder inOrder = inOrder(currencyExchangeServiceMock, transactionTemplateMock);
+        inOrder.verify(currencyExchangeServiceMock).getExchangeRates();
+        inOrder.verify(transactionTemplateMock).execute(any());
     }
 
     @Test
@@ -309,10 +389,152 @@ public class TransactionServiceTests {
         when(authenticationMock.getPrincipal()).thenReturn(client);
         when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
         when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        runTransactionTemplateCallbacks();
+        when(accountServiceMock.debitAccount(account, BigDecimal.valueOf(50000))).thenReturn(false);
         TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
         assertEquals(TransferStatus.FAILED, result.getTransferStatus());
         assertEquals(INSUFFICIENT_BALANCE_ERROR, result.getMessage());
         verify(transactionRepositoryMock, never()).save(any());
+        verify(accountServiceMock, never()).creditAccount(any(), any());
+    }
+
+    @Test
+    void transferBetweenAccounts_destinationCreditFails_throwsException() {
+        Client client = getTestClient();
+        Account account = getTestAccount();
+
+        Account destinationAccount = new Account();
+        destinationAccount.setId(UUID.fromString("679a39db-28be-4633-a69a-37d33440e1ac"));
+        destinationAccount.setIban("LV18HABA4P32VIMESXWV6");
+        destinationAccount.setCurrency(CurrencyCode.EUR);
+        destinationAccount.setBalance(BigDecimal.valueOf(100));
+
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setSourceAccountNumber(account.getIban());
+        transferRequest.setDestinationAccountNumber(destinationAccount.getIban());
+        transferRequest.setAmount(BigDecimal.valueOf(50));
+        transferRequest.setDestinationCurrency(CurrencyCode.EUR);
+
+        when(authenticationMock.getPrincipal()).thenReturn(client);
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        runTransactionTemplateCallbacks();
+        when(accountServiceMock.debitAccount(account, BigDecimal.valueOf(50))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(false);
+
+        assertThrows(FailedAccountUpdateException.class, () ->
+                transactionService.transferBetweenAccounts(authenticationMock, transferRequest));
+        verify(transactionRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    void transferBatch_perItemCommit_reportsEachTransfer() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setTransfers(List.of(
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50)),
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(500))));
+
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountsByIbans(List.of(account.getIban(), destinationAccount.getIban())))
+                .thenReturn(List.of(account, destinationAccount));
+        when(currencyExchangeServiceMock.getExchangeRates())
+                .thenReturn(ExchangeRateTable.fromRates(CurrencyCode.GBP, Map.of(CurrencyCode.EUR, new BigDecimal("1.2")), 0, 0));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(new BigDecimal("60.0")))).thenReturn(true);
+        when(accountServiceMock.debitAccount(any(Account.class), eq(new BigDecimal("600.0")))).thenReturn(false);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
+        runTransactionTemplateCallbacks();
+
+        List<TransferResult> results = transactionService.transferBatch(authenticationMock, batchTransferRequest);
+
+        assertEquals(2, results.size());
+        assertEquals(TransferStatus.SUCCESSFUL, results.get(0).getTransferStatus());
+        assertEquals(TransferStatus.FAILED, results.get(1).getTransferStatus());
+        assertEquals(INSUFFICIENT_BALANCE_ERROR, results.get(1).getMessage());
+        verify(currencyExchangeServiceMock, times(1)).getExchangeRates();
+        verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
+    }
+
+    @Test
+    void transferBatch_perItemCommit_locksEachTransferOnItsOwn() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        destinationAccount.setCurrency(CurrencyCode.EUR);
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setTransfers(List.of(
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50)),
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(20))));
+
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountsByIbans(List.of(account.getIban(), destinationAccount.getIban())))
+                .thenReturn(List.of(account, destinationAccount));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(BigDecimal.valueOf(20)))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(20))).thenReturn(true);
+        doThrow(new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR)).doCallRealMethod()
+                .when(accountLockManager).lock(account.getIban(), destinationAccount.getIban());
+        runTransactionTemplateCallbacks();
+
+        List<TransferResult> results = transactionService.transferBatch(authenticationMock, batchTransferRequest);
+
+        assertEquals(ACCOUNT_LOCK_TIMEOUT_ERROR, results.get(0).getMessage());
+        assertEquals(TransferStatus.SUCCESSFUL, results.get(1).getTransferStatus());
+        verify(accountServiceMock, never()).debitAccount(any(Account.class), eq(BigDecimal.valueOf(50)));
+        verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
+    }
+
+    @Test
+    void transferBatch_atomic_rollsBackWholeBatchOnFailure() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        destinationAccount.setCurrency(CurrencyCode.EUR);
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setAtomic(true);
+        batchTransferRequest.setTransfers(List.of(
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50)),
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(500))));
+
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountsByIbans(List.of(account.getIban(), destinationAccount.getIban())))
+                .thenReturn(List.of(account, destinationAccount));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(BigDecimal.valueOf(50)))).thenReturn(true);
+        when(accountServiceMock.debitAccount(any(Account.class), eq(BigDecimal.valueOf(500)))).thenReturn(false);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
+        runTransactionTemplateCallbacks();
+
+        List<TransferResult> results = transactionService.transferBatch(authenticationMock, batchTransferRequest);
+
+        assertEquals(2, results.size());
+        assertEquals(TRANSFER_ERROR, results.get(0).getMessage());
+        assertEquals(INSUFFICIENT_BALANCE_ERROR, results.get(1).getMessage());
+        verify(transactionRepositoryMock, never()).saveAll(any());
+        verifyNoInteractions(currencyExchangeServiceMock);
+    }
+
+    @Test
+    void transferBatch_atomicWithInvalidItem_writesNothing() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        destinationAccount.setCurrency(CurrencyCode.EUR);
+        TransferRequest unknownDestination = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(10));
+        unknownDestination.setDestinationAccountNumber("LV83HABA397NC9TA6ERJS");
+        BatchTransferRequest batchTransferRequest = new BatchTransferRequest();
+        batchTransferRequest.setAtomic(true);
+        batchTransferRequest.setTransfers(List.of(
+                getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50)),
+                unknownDestination));
+
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountsByIbans(any())).thenReturn(List.of(account, destinationAccount));
+
+        List<TransferResult> results = transactionService.transferBatch(authenticationMock, batchTransferRequest);
+
+        assertEquals(TRANSFER_ERROR, results.get(0).getMessage());
+        assertEquals(DESTINATION_ACCOUNT_NOT_FOUND_ERROR, results.get(1).getMessage());
+        verify(accountServiceMock, never()).debitAccount(any(), any());
+        verifyNoInteractions(transactionTemplateMock);
     }
 
     @Test
@@ -374,22 +596,25 @@ public class TransactionServiceTests {
 
     @Test
     void depositAccount_successfulDeposit() {
+        runTransactionTemplateCallbacks();
         Client client = getTestClient();
         TransactionRequest transactionRequest = getTestTransactionRequest();
         Account account = getTestAccount();
 
         when(authenticationMock.getPrincipal()).thenReturn(client);
         when(accountServiceMock.getAccountByIban(transactionRequest.getAccountIban())).thenReturn(account);
+        when(accountServiceMock.creditAccount(account.getId(), transactionRequest.getAmount())).thenReturn(true);
 
         AccountResponseDto response = transactionService.depositAccount(authenticationMock, transactionRequest);
 
         assertEquals(new BigDecimal("300.2"), response.getBalance());
         verify(transactionRepositoryMock, times(1)).save(any(Transaction.class));
-        verify(accountServiceMock, times(1)).updateAccount(account);
+        verify(accountServiceMock, times(1)).creditAccount(account.getId(), transactionRequest.getAmount());
     }
 
     @Test
     void depositAccount_unauthorizedUser_throwsException() {
+        runTransactionTemplateCallbacks();
         TransactionRequest transactionRequest = getTestTransactionRequest();
         Account account = getTestAccount();
         Client unauthorizedClient = getUnauthorizedClient();
@@ -399,7 +624,159 @@ public class TransactionServiceTests {
 
         assertThrows(PermissionDeniedException.class, () ->
                 transactionService.depositAccount(authenticationMock, transactionRequest));
-        verify(accountServiceMock, never()).updateAccount(any());
+        verify(accountServiceMock, never()).creditAccount(any(), any());
         verify(transactionRepositoryMock, never()).save(any());
     }
+
+    @Test
+    void depositAccount_locksBeforeTheTransactionBegins() {
+        Account account = getTestAccount();
+        runTransactionTemplateCallbacks();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.creditAccount(account.getId(), getTestTransactionRequest().getAmount())).thenReturn(true);
+
+        transactionService.depositAccount(authenticationMock, getTestTransactionRequest());
+
+        InOrder inOrder = inOrder(accountLockManager, transactionTemplateMock);
+        inOrder.verify(accountLockManager).lock(account.getIban());
+        inOrder.verify(transactionTemplateMock).execute(any());
+    }
+
+    @Test
+    void withdrawAccount_lockTimeoutNeverOpensATransaction() {
+        doThrow(new AccountLockTimeoutException(ACCOUNT_LOCK_TIMEOUT_ERROR))
+                .when(accountLockManager).lock(getTestTransactionRequest().getAccountIban());
+
+        assertThrows(AccountLockTimeoutException.class, () ->
+                transactionService.withdrawAccount(authenticationMock, getTestTransactionRequest()));
+        verifyNoInteractions(transactionTemplateMock, accountServiceMock);
+    }
+
+    private TransferQuote issueTestQuote(Account account, BigDecimal amount) {
+        TransferQuoteRequest quoteRequest = new TransferQuoteRequest();
+        quoteRequest.setSourceAccountNumber(account.getIban());
+        quoteRequest.setAmount(amount);
+        quoteRequest.setDestinationCurrency(CurrencyCode.GBP);
+        when(currencyExchangeServiceMock.getExchangeRates())
+                .thenReturn(ExchangeRateTable.fromRates(CurrencyCode.GBP, Map.of(CurrencyCode.EUR, new BigDecimal("1.2")), 0, 0));
+        return transactionService.quoteTransfer(authenticationMock, quoteRequest);
+    }
+
+    @Test
+    void transferBetweenAccounts_withQuote_usesLockedRate() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(new BigDecimal("60.0")))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
+        runTransactionTemplateCallbacks();
+
+        TransferQuote quote = issueTestQuote(account, BigDecimal.valueOf(50));
+        TransferRequest transferRequest = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50));
+        transferRequest.setQuoteId(quote.getQuoteId());
+        TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+
+        assertEquals(new BigDecimal("60.0"), quote.getSourceAmountDebited());
+        assertEquals(TransferStatus.SUCCESSFUL, result.getTransferStatus());
+        verify(currencyExchangeServiceMock, times(1)).getExchangeRates();
+    }
+
+    @Test
+    void transferBetweenAccounts_quoteCanOnlyBeRedeemedOnce() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(new BigDecimal("60.0")))).thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
+        runTransactionTemplateCallbacks();
+
+        TransferQuote quote = issueTestQuote(account, BigDecimal.valueOf(50));
+        TransferRequest transferRequest = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50));
+        transferRequest.setQuoteId(quote.getQuoteId());
+        TransferResult first = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+        TransferResult second = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+
+        assertEquals(TransferStatus.SUCCESSFUL, first.getTransferStatus());
+        assertEquals(QUOTE_NOT_FOUND_ERROR, second.getMessage());
+        verify(transactionRepositoryMock, times(1)).save(any());
+    }
+
+    @Test
+    void transferBetweenAccounts_quoteSurvivesAFailedTransfer() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+        when(accountServiceMock.getAccountBalance(account.getId())).thenReturn(Optional.of(getAccountBalance(account)));
+        when(accountServiceMock.debitAccount(any(Account.class), eq(new BigDecimal("60.0"))))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn(true);
+        when(accountServiceMock.creditAccount(destinationAccount.getId(), BigDecimal.valueOf(50))).thenReturn(true);
+        runTransactionTemplateCallbacks();
+
+        TransferQuote quote = issueTestQuote(account, BigDecimal.valueOf(50));
+        TransferRequest transferRequest = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50));
+        transferRequest.setQuoteId(quote.getQuoteId());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionService.transferBetweenAccounts(authenticationMock, transferRequest));
+        TransferResult retried = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+
+        assertEquals(TransferStatus.SUCCESSFUL, retried.getTransferStatus());
+    }
+
+    @Test
+    void transferBetweenAccounts_quoteForDifferentAmount() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+
+        TransferQuote quote = issueTestQuote(account, BigDecimal.valueOf(50));
+        TransferRequest transferRequest = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(60));
+        transferRequest.setQuoteId(quote.getQuoteId());
+        TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+
+        assertEquals(TransferStatus.FAILED, result.getTransferStatus());
+        assertEquals(QUOTE_MISMATCH_ERROR, result.getMessage());
+        verify(transactionTemplateMock, never()).execute(any());
+    }
+
+    @Test
+    void transferBetweenAccounts_unknownQuote() {
+        Account account = getTestAccount();
+        Account destinationAccount = getTestDestinationAccount();
+        when(authenticationMock.getPrincipal()).thenReturn(getTestClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+        when(accountServiceMock.getAccountByIban(destinationAccount.getIban())).thenReturn(destinationAccount);
+
+        TransferRequest transferRequest = getTestTransferRequest(account, destinationAccount, BigDecimal.valueOf(50));
+        transferRequest.setQuoteId(UUID.randomUUID());
+        TransferResult result = transactionService.transferBetweenAccounts(authenticationMock, transferRequest);
+
+        assertEquals(QUOTE_NOT_FOUND_ERROR, result.getMessage());
+        verifyNoInteractions(currencyExchangeServiceMock);
+    }
+
+    @Test
+    void quoteTransfer_unauthorizedAccount() {
+        Account account = getTestAccount();
+        TransferQuoteRequest quoteRequest = new TransferQuoteRequest();
+        quoteRequest.setSourceAccountNumber(account.getIban());
+        quoteRequest.setAmount(BigDecimal.TEN);
+        quoteRequest.setDestinationCurrency(CurrencyCode.GBP);
+        when(authenticationMock.getPrincipal()).thenReturn(getUnauthorizedClient());
+        when(accountServiceMock.getAccountByIban(account.getIban())).thenReturn(account);
+
+        assertThrows(PermissionDeniedException.class, () -> transactionService.quoteTransfer(authenticationMock, quoteRequest));
+        verifyNoInteractions(currencyExchangeServiceMock);
+    }
 }